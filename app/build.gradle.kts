@@ -1,9 +1,14 @@
+import com.android.build.api.variant.BuildConfigField
 import java.util.Properties
 
 plugins {
     alias(libs.plugins.android.application)
+    alias(libs.plugins.baselineprofile)
 }
 
+// Port of the stub /forecast server that :benchmark runs on the device
+val benchmarkStubPort = 8765
+
 android {
     namespace = "com.example.freezer"
     compileSdk = 36
@@ -28,11 +33,14 @@ android {
         }
         val apiKey = secrets.getProperty("WEATHER_API_KEY", "MISSING_API_KEY")
         buildConfigField("String", "WEATHER_API_KEY", "\"$apiKey\"")
+        buildConfigField("String", "WEATHER_BASE_URL", "\"https://api.openweathermap.org/data/2.5/\"")
+        manifestPlaceholders["usesCleartextTraffic"] = "false"
     }
 
     buildTypes {
         release {
-            isMinifyEnabled = false
+            isMinifyEnabled = true
+            isShrinkResources = true
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
                 "proguard-rules.pro"
@@ -44,6 +52,25 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+
+    // Lets JVM tests run code that logs through android.util.Log
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
+}
+
+// The baselineprofile plugin adds benchmarkRelease and nonMinifiedRelease; point them at
+// the local stub so startup and scroll runs never hit OpenWeatherMap
+androidComponents {
+    onVariants { variant ->
+        if (variant.name == "benchmarkRelease" || variant.name == "nonMinifiedRelease") {
+            variant.buildConfigFields.put(
+                "WEATHER_BASE_URL",
+                BuildConfigField("String", "\"http://127.0.0.1:$benchmarkStubPort/data/2.5/\"", "Benchmark stub server")
+            )
+            variant.manifestPlaceholders.put("usesCleartextTraffic", "true")
+        }
+    }
 }
 
 dependencies {
@@ -51,14 +78,18 @@ dependencies {
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
+    implementation(libs.profileinstaller)
+    baselineProfile(project(":benchmark"))
     testImplementation(libs.junit)
+    testImplementation(libs.mockwebserver)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
-    implementation("com.squareup.retrofit2:converter-gson:2.9.0")
     implementation("com.squareup.okhttp3:logging-interceptor:4.9.3")
     implementation("com.google.code.gson:gson:2.8.9")
     implementation("com.google.android.gms:play-services-location:21.0.1")
     implementation("androidx.recyclerview:recyclerview:1.3.2")
+    implementation("androidx.swiperefreshlayout:swiperefreshlayout:1.1.0")
     implementation("androidx.work:work-runtime:2.8.1")
 }
\ No newline at end of file
@@ -18,4 +18,14 @@
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+#-renamesourcefileattribute SourceFile
+
+# Retrofit reads the generic return type of WeatherAPI methods at runtime. R8 full mode
+# strips signatures from classes it thinks are unused, so keep Call/Response and the
+# attributes Retrofit needs. Forecast parsing is reflection-free (ForecastJsonDecoder),
+# so the model classes need no keep rules.
+-keepattributes Signature, InnerClasses, EnclosingMethod
+-keepattributes RuntimeVisibleAnnotations, RuntimeVisibleParameterAnnotations
+-keep,allowobfuscation,allowshrinking interface retrofit2.Call
+-keep,allowobfuscation,allowshrinking class retrofit2.Response
+-keep,allowobfuscation interface com.example.freezer.api.WeatherAPI
@@ -0,0 +1,55 @@
+package com.example.freezer;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.freezer.diagnostics.RefreshTraceLog;
+
+/**
+ * Debug-only view of {@link RefreshTraceLog}: the last refreshes split by stage, and jank
+ * in the hourly strip, so a regressed stage shows up without attaching a profiler.
+ */
+public class DiagnosticsActivity extends AppCompatActivity {
+    private static final long UPDATE_INTERVAL_MS = 1000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private TextView diagnosticsText;
+
+    private final Runnable update = new Runnable() {
+        @Override
+        public void run() {
+            diagnosticsText.setText(RefreshTraceLog.getInstance().format());
+            handler.postDelayed(this, UPDATE_INTERVAL_MS);
+        }
+    };
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_diagnostics);
+
+        diagnosticsText = findViewById(R.id.diagnosticsText);
+        Button clearButton = findViewById(R.id.clearButton);
+        clearButton.setOnClickListener(v -> {
+            RefreshTraceLog.getInstance().clear();
+            diagnosticsText.setText(RefreshTraceLog.getInstance().format());
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        handler.post(update);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        handler.removeCallbacks(update);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.freezer;
+
+import android.app.Activity;
+import android.text.InputType;
+import android.widget.ArrayAdapter;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.Spinner;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AlertDialog;
+
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.repository.AlertRuleStore;
+import com.example.freezer.repository.SettingsStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Minimal editor for user-defined alert rules: switch them on and off, add a rule with
+ * one condition, or delete one. The built-in freeze and umbrella rules keep their own
+ * toggles on the main screen.
+ */
+class AlertRulesDialog {
+    private final Activity activity;
+    private final SettingsStore settingsStore;
+    private final AlertRuleStore ruleStore;
+    // Runs after every change, e.g. to resync alarms
+    private final Runnable onChanged;
+
+    AlertRulesDialog(Activity activity, Runnable onChanged) {
+        this.activity = activity;
+        this.settingsStore = SettingsStore.getInstance(activity);
+        this.ruleStore = AlertRuleStore.getInstance(activity);
+        this.onChanged = onChanged;
+    }
+
+    void show() {
+        settingsStore.getAsync(settings -> {
+            if (activity.isFinishing()) {
+                return;
+            }
+            List<AlertRule> rules = new ArrayList<>();
+            for (AlertRule rule : AlertRuleStore.getAll(settings)) {
+                if (!rule.isBuiltIn()) {
+                    rules.add(rule);
+                }
+            }
+            showRules(rules);
+        });
+    }
+
+    private void showRules(List<AlertRule> rules) {
+        String[] names = new String[rules.size()];
+        boolean[] enabled = new boolean[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            names[i] = describe(rules.get(i));
+            enabled[i] = rules.get(i).isEnabled();
+        }
+
+        AlertDialog.Builder builder = new AlertDialog.Builder(activity)
+                .setTitle("Custom alerts")
+                .setPositiveButton("Done", null)
+                .setNeutralButton("Add", (dialog, which) -> showAddRule());
+        if (rules.isEmpty()) {
+            builder.setMessage("No custom alerts yet");
+        } else {
+            builder.setMultiChoiceItems(names, enabled, (dialog, which, isChecked) -> {
+                ruleStore.setEnabled(rules.get(which).getId(), isChecked);
+                onChanged.run();
+            });
+            builder.setNegativeButton("Delete", (dialog, which) -> showDelete(rules, names));
+        }
+        builder.show();
+    }
+
+    private void showDelete(List<AlertRule> rules, String[] names) {
+        new AlertDialog.Builder(activity)
+                .setTitle("Delete alert")
+                .setItems(names, (dialog, which) -> {
+                    ruleStore.remove(rules.get(which).getId());
+                    onChanged.run();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showAddRule() {
+        LinearLayout form = new LinearLayout(activity);
+        form.setOrientation(LinearLayout.VERTICAL);
+        int padding = (int) (16 * activity.getResources().getDisplayMetrics().density);
+        form.setPadding(padding, padding, padding, 0);
+
+        EditText name = new EditText(activity);
+        name.setHint("Name");
+        form.addView(name);
+
+        Spinner metric = spinner(AlertRule.Metric.values());
+        form.addView(metric);
+        Spinner comparison = spinner(AlertRule.Comparison.values());
+        form.addView(comparison);
+
+        EditText threshold = new EditText(activity);
+        threshold.setHint("Threshold (°F, mph, %, mm)");
+        threshold.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_DECIMAL
+                | InputType.TYPE_NUMBER_FLAG_SIGNED);
+        form.addView(threshold);
+
+        EditText startHour = hourField("From hour (0-23)");
+        form.addView(startHour);
+        EditText endHour = hourField("Until hour (0-23)");
+        form.addView(endHour);
+
+        Spinner check = spinner(AlertRule.Check.values());
+        form.addView(check);
+
+        new AlertDialog.Builder(activity)
+                .setTitle("Add alert")
+                .setView(form)
+                .setPositiveButton("Add", (dialog, which) -> {
+                    try {
+                        AlertRule.Condition condition = new AlertRule.Condition(
+                                (AlertRule.Metric) metric.getSelectedItem(),
+                                (AlertRule.Comparison) comparison.getSelectedItem(),
+                                Double.parseDouble(threshold.getText().toString()));
+                        ruleStore.add(name.getText().toString().trim(),
+                                (AlertRule.Check) check.getSelectedItem(),
+                                Integer.parseInt(startHour.getText().toString()),
+                                Integer.parseInt(endHour.getText().toString()),
+                                Collections.singletonList(condition));
+                        onChanged.run();
+                    } catch (IllegalArgumentException e) {
+                        // Also covers NumberFormatException from empty fields
+                        Toast.makeText(activity, "Invalid alert: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                    }
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private <T> Spinner spinner(T[] values) {
+        Spinner spinner = new Spinner(activity);
+        ArrayAdapter<T> adapter = new ArrayAdapter<>(activity, android.R.layout.simple_spinner_item, values);
+        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinner.setAdapter(adapter);
+        return spinner;
+    }
+
+    private EditText hourField(String hint) {
+        EditText field = new EditText(activity);
+        field.setHint(hint);
+        field.setInputType(InputType.TYPE_CLASS_NUMBER);
+        return field;
+    }
+
+    private static String describe(AlertRule rule) {
+        AlertRule.Condition condition = rule.getConditions().get(0);
+        String more = rule.getConditions().size() > 1 ? " or more" : "";
+        return rule.getName() + ": " + condition.getMetric() + " " + condition.getComparison() + " "
+                + condition.getThreshold() + more + ", " + rule.getStartHour() + ":00-" + rule.getEndHour() + ":00";
+    }
+}
@@ -2,11 +2,13 @@ package com.example.freezer;
 
 import android.Manifest;
 import android.content.Context;
-import android.content.SharedPreferences;
+import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
+import android.text.format.DateUtils;
 import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.Button;
 import android.widget.ProgressBar;
 import android.widget.Switch;
@@ -19,50 +21,78 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import androidx.work.Data;
-import androidx.work.ExistingPeriodicWorkPolicy;
-import androidx.work.PeriodicWorkRequest;
-import androidx.work.WorkManager;
 
 import com.example.freezer.adapter.HourlyForecastAdapter;
 import com.example.freezer.api.RetrofitClient;
-import com.example.freezer.api.WeatherAPI;
+import com.example.freezer.diagnostics.RefreshTrace;
+import com.example.freezer.diagnostics.StripJankTracker;
+import com.example.freezer.model.AlertRule;
 import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.example.freezer.model.ForecastSnapshot;
+import com.example.freezer.repository.AlertRuleStore;
+import com.example.freezer.repository.ForecastPrefetcher;
+import com.example.freezer.repository.ForecastRefresher;
+import com.example.freezer.repository.ForecastRepository;
+import com.example.freezer.repository.ForecastSnapshotStore;
+import com.example.freezer.repository.RefreshPolicy;
+import com.example.freezer.repository.SavedLocationStore;
+import com.example.freezer.repository.SettingsStore;
+import com.example.freezer.service.LocationFix;
 import com.example.freezer.service.LocationService;
-import com.example.freezer.workers.EveningFreezeCheckWorker;
-import com.example.freezer.workers.MorningUmbrellaCheckWorker;
+import com.example.freezer.workers.AlertScheduler;
+import com.example.freezer.workers.ForecastRefreshWorker;
 
-import java.util.ArrayList;
-import java.util.Calendar;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class MainActivity extends AppCompatActivity {
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 1001;
+    private static final long SLOT_SECONDS = 3 * 60 * 60;
 
-    private TextView locationText, currentTempText, weatherDescriptionText;
+    private TextView locationText, currentTempText, weatherDescriptionText, lastUpdatedText;
     private RecyclerView hourlyForecastRecyclerView;
     private ProgressBar progressBar;
-    private Button retryButton;
+    private SwipeRefreshLayout swipeRefreshLayout;
+    private Button retryButton, customAlertsButton, savedLocationsButton;
     private Switch freezeAlertToggle, umbrellaAlertToggle;
 
     private LocationService locationService;
-    private WeatherAPI weatherAPI;
+    private ForecastRepository forecastRepository;
+    private ForecastPrefetcher forecastPrefetcher;
+    private ForecastRefresher forecastRefresher;
+    private SettingsStore settingsStore;
     private HourlyForecastAdapter adapter;
+    private StripJankTracker stripJankTracker;
+
+    // Fetch time of the forecast on screen, 0 until one is shown
+    private long displayedFetchedAtMillis;
+    private boolean hasLiveForecast;
+    // The refresh in progress, finished once its rows are drawn or it fails
+    private RefreshTrace refreshTrace;
+    // Launch fetch for the last location, until the first fix claims or cancels it
+    private ForecastPrefetcher.Speculation speculation;
+    private boolean firstFixHandled;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        // Start loading settings before anything needs them
+        settingsStore = SettingsStore.getInstance(this);
+
         initializeViews();
         setupRecyclerView();
         initializeServices();
 
+        showLastKnownForecast();
+        startSpeculativeFetch();
         requestLocationPermission();
     }
 
@@ -70,64 +100,134 @@ public class MainActivity extends AppCompatActivity {
         locationText = findViewById(R.id.locationText);
         currentTempText = findViewById(R.id.currentTempText);
         weatherDescriptionText = findViewById(R.id.weatherDescriptionText);
+        lastUpdatedText = findViewById(R.id.lastUpdatedText);
         hourlyForecastRecyclerView = findViewById(R.id.hourlyForecastRecyclerView);
         progressBar = findViewById(R.id.progressBar);
+        swipeRefreshLayout = findViewById(R.id.swipeRefreshLayout);
         retryButton = findViewById(R.id.retryButton);
+        customAlertsButton = findViewById(R.id.customAlertsButton);
+        savedLocationsButton = findViewById(R.id.savedLocationsButton);
         freezeAlertToggle = findViewById(R.id.freezeAlertToggle);
         umbrellaAlertToggle = findViewById(R.id.umbrellaAlertToggle);
 
-        // Load saved toggle state
-        SharedPreferences prefs = getSharedPreferences("weather_prefs", MODE_PRIVATE);
-        boolean freezeAlertsEnabled = prefs.getBoolean("freeze_alerts_enabled", false);
-        boolean umbrellaAlertsEnabled = prefs.getBoolean("umbrella_alerts_enabled", false);
-        freezeAlertToggle.setChecked(freezeAlertsEnabled);
-        umbrellaAlertToggle.setChecked(umbrellaAlertsEnabled);
+        // Disabled until settings have loaded off the main thread, so an early tap isn't overwritten
+        freezeAlertToggle.setEnabled(false);
+        umbrellaAlertToggle.setEnabled(false);
+        settingsStore.getAsync(settings -> {
+            freezeAlertToggle.setChecked(settings.isFreezeAlertsEnabled());
+            umbrellaAlertToggle.setChecked(settings.isUmbrellaAlertsEnabled());
+            setupAlertToggles();
+            freezeAlertToggle.setEnabled(true);
+            umbrellaAlertToggle.setEnabled(true);
+        });
 
-        // Save toggle state when changed
+        retryButton.setOnClickListener(v -> {
+            retryButton.setVisibility(View.GONE);
+            fetchWeatherData("retry");
+        });
+
+        customAlertsButton.setOnClickListener(v ->
+                new AlertRulesDialog(this, this::onAlertRulesChanged).show());
+        savedLocationsButton.setOnClickListener(v ->
+                new SavedLocationsDialog(this, this::onSavedLocationsChanged).show());
+
+        if (BuildConfig.DEBUG) {
+            // Long-press the location to export network timings for `adb pull`
+            locationText.setOnLongClickListener(v -> {
+                exportNetworkMetrics();
+                return true;
+            });
+            // Long-press the temperature for per-stage refresh timings and strip jank
+            currentTempText.setOnLongClickListener(v -> {
+                startActivity(new Intent().setClassName(this, "com.example.freezer.DiagnosticsActivity"));
+                return true;
+            });
+        }
+
+        // Pull-to-refresh keeps the current list in place and diffs in the new forecast
+        swipeRefreshLayout.setOnRefreshListener(() -> {
+            retryButton.setVisibility(View.GONE);
+            fetchWeatherData("pull");
+        });
+    }
+
+    private void setupAlertToggles() {
         freezeAlertToggle.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            SharedPreferences.Editor editor = getSharedPreferences("weather_prefs", MODE_PRIVATE).edit();
-            editor.putBoolean("freeze_alerts_enabled", isChecked);
-            editor.apply();
+            settingsStore.update(settings -> settings.setFreezeAlertsEnabled(isChecked));
 
             if (isChecked) {
                 Toast.makeText(MainActivity.this, "Freeze alerts enabled", Toast.LENGTH_SHORT).show();
             } else {
                 Toast.makeText(MainActivity.this, "Freeze alerts disabled", Toast.LENGTH_SHORT).show();
-                // Cancel any scheduled work if user turns off alerts
-                WorkManager.getInstance(this).cancelUniqueWork("dailyEveningFreezeCheck");
             }
+            // Cancels the evening check too once no rule in it is left on
+            onAlertRulesChanged();
         });
 
         umbrellaAlertToggle.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            SharedPreferences.Editor editor = getSharedPreferences("weather_prefs", MODE_PRIVATE).edit();
-            editor.putBoolean("umbrella_alerts_enabled", isChecked);
-            editor.apply();
+            settingsStore.update(settings -> settings.setUmbrellaAlertsEnabled(isChecked));
 
             if (isChecked) {
                 Toast.makeText(MainActivity.this, "Umbrella alerts enabled", Toast.LENGTH_SHORT).show();
-                scheduleMorningUmbrellaCheck();
             } else {
                 Toast.makeText(MainActivity.this, "Umbrella alerts disabled", Toast.LENGTH_SHORT).show();
-                WorkManager.getInstance(this).cancelUniqueWork("morningUmbrellaCheck");
             }
-        });
-
-        retryButton.setOnClickListener(v -> {
-            retryButton.setVisibility(View.GONE);
-            fetchWeatherData();
+            onAlertRulesChanged();
         });
     }
 
     private void setupRecyclerView() {
         hourlyForecastRecyclerView.setLayoutManager(new LinearLayoutManager(
                 this, LinearLayoutManager.HORIZONTAL, false));
-        adapter = new HourlyForecastAdapter(new ArrayList<>());
+        adapter = new HourlyForecastAdapter();
         hourlyForecastRecyclerView.setAdapter(adapter);
+        if (BuildConfig.DEBUG) {
+            stripJankTracker = StripJankTracker.attach(this, hourlyForecastRecyclerView);
+        }
     }
 
     private void initializeServices() {
         locationService = new LocationService(this);
-        weatherAPI = RetrofitClient.getClient().create(WeatherAPI.class);
+        forecastRepository = ForecastRepository.getInstance(this);
+        forecastPrefetcher = ForecastPrefetcher.getInstance(this);
+        forecastRefresher = new ForecastRefresher(this);
+    }
+
+    // Render the last saved forecast right away, marked stale, while the live fetch runs
+    private void showLastKnownForecast() {
+        ForecastSnapshotStore.getInstance(this).getAsync(snapshot -> {
+            if (snapshot == null) {
+                return;
+            }
+            runOnUiThread(() -> {
+                if (hasLiveForecast || isFinishing()) {
+                    return;
+                }
+                updateUI(snapshot.getForecast(), snapshot.getFetchedAtMillis(), null);
+                showLastUpdated(false);
+            });
+        });
+    }
+
+    // Most launches are where the last one was, so fetch for it while the fix is found
+    private void startSpeculativeFetch() {
+        if (ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION)
+                != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+        settingsStore.getAsync(settings -> {
+            if (firstFixHandled || !settings.hasLastLocation() || isFinishing()) {
+                return;
+            }
+            speculation = forecastPrefetcher.speculate(settings.getLastLat(), settings.getLastLon(), "imperial");
+        });
+    }
+
+    private void showLastUpdated(boolean offline) {
+        CharSequence age = DateUtils.getRelativeTimeSpanString(
+                displayedFetchedAtMillis, System.currentTimeMillis(), DateUtils.MINUTE_IN_MILLIS);
+        lastUpdatedText.setText((offline ? "Offline · updated " : "Updated ") + age);
+        lastUpdatedText.setVisibility(View.VISIBLE);
     }
 
     private void requestLocationPermission() {
@@ -137,7 +237,7 @@ public class MainActivity extends AppCompatActivity {
                     new String[]{Manifest.permission.ACCESS_FINE_LOCATION},
                     LOCATION_PERMISSION_REQUEST_CODE);
         } else {
-            fetchWeatherData();
+            fetchWeatherData("launch");
         }
     }
 
@@ -147,7 +247,7 @@ public class MainActivity extends AppCompatActivity {
         super.onRequestPermissionsResult(requestCode, permissions, grantResults);
         if (requestCode == LOCATION_PERMISSION_REQUEST_CODE) {
             if (grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
-                fetchWeatherData();
+                fetchWeatherData("launch");
             } else {
                 locationText.setText("Location permission denied");
                 retryButton.setVisibility(View.VISIBLE);
@@ -155,147 +255,204 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    private void fetchWeatherData() {
+    private void fetchWeatherData(String trigger) {
         progressBar.setVisibility(View.VISIBLE);
 
+        if (refreshTrace != null) {
+            refreshTrace.finish("replaced");
+        }
+        RefreshTrace trace = new RefreshTrace(trigger);
+        refreshTrace = trace;
+        trace.begin(RefreshTrace.Stage.LOCATION);
+
         locationService.getCurrentLocation(new LocationService.LocationListener() {
             @Override
-            public void onLocationReceived(double lat, double lon) {
-                getWeatherForecast(lat, lon);
+            public void onLocationReceived(LocationFix fix) {
+                trace.end(RefreshTrace.Stage.LOCATION);
+                getWeatherForecast(fix.getLat(), fix.getLon(), trace, takeSpeculation());
             }
 
             @Override
             public void onLocationError(String error) {
+                trace.finish("no fix");
+                ForecastPrefetcher.Speculation unused = takeSpeculation();
+                if (unused != null) {
+                    unused.cancel();
+                }
                 runOnUiThread(() -> {
                     progressBar.setVisibility(View.GONE);
-                    locationText.setText("Error getting location: " + error);
+                    swipeRefreshLayout.setRefreshing(false);
+                    if (displayedFetchedAtMillis == 0) {
+                        locationText.setText("Error getting location: " + error);
+                    }
                     retryButton.setVisibility(View.VISIBLE);
                 });
             }
         });
     }
 
-    private void getWeatherForecast(double lat, double lon) {
-        Call<ForecastResponse> call = weatherAPI.getForecastByCoords(
-                lat, lon, BuildConfig.WEATHER_API_KEY, "imperial");
+    // Only the first fix after launch can use the speculative fetch
+    private ForecastPrefetcher.Speculation takeSpeculation() {
+        firstFixHandled = true;
+        ForecastPrefetcher.Speculation taken = speculation;
+        speculation = null;
+        return taken;
+    }
 
-        call.enqueue(new Callback<ForecastResponse>() {
+    private void getWeatherForecast(double lat, double lon, RefreshTrace trace,
+                                    ForecastPrefetcher.Speculation speculation) {
+        trace.begin(RefreshTrace.Stage.NETWORK);
+        ForecastRepository.ForecastCallback callback = new ForecastRepository.ForecastCallback() {
             @Override
-            public void onResponse(Call<ForecastResponse> call, Response<ForecastResponse> response) {
+            public void onForecastLoaded(ForecastResponse forecast) {
+                trace.end(RefreshTrace.Stage.NETWORK);
+                trace.splitOff(RefreshTrace.Stage.NETWORK, RefreshTrace.Stage.PARSE, forecast.getDecodeMillis());
                 progressBar.setVisibility(View.GONE);
-
-                if (response.isSuccessful() && response.body() != null) {
-                    updateUI(response.body());
-                    scheduleEveningFreezeCheck(lat, lon);
-                } else {
-                    locationText.setText("Error fetching weather data");
-                    retryButton.setVisibility(View.VISIBLE);
-                }
+                swipeRefreshLayout.setRefreshing(false);
+                ForecastSnapshot snapshot = forecastRefresher.save(lat, lon, forecast);
+                hasLiveForecast = true;
+                trace.begin(RefreshTrace.Stage.UPDATE_UI);
+                updateUI(forecast, snapshot.getFetchedAtMillis(), () -> {
+                    // The diff runs off the main thread, so the stage lasts until its rows land
+                    trace.end(RefreshTrace.Stage.UPDATE_UI);
+                    trace.begin(RefreshTrace.Stage.FIRST_FRAME);
+                    finishOnNextFrame(trace);
+                });
+                lastUpdatedText.setVisibility(View.GONE);
+                // Marks time to full display for startup benchmarks
+                reportFullyDrawn();
+                // Remember the fix for background checks
+                SavedLocationStore.getInstance(MainActivity.this).setCurrent(lat, lon);
+                scheduleAlertChecks();
+                scheduleAdaptiveRefresh(snapshot);
             }
 
             @Override
-            public void onFailure(Call<ForecastResponse> call, Throwable t) {
+            public void onForecastError(String error) {
+                trace.finish("error");
                 progressBar.setVisibility(View.GONE);
-                locationText.setText("Network error");
+                swipeRefreshLayout.setRefreshing(false);
+                // Keep whatever forecast is on screen usable offline
+                if (displayedFetchedAtMillis != 0) {
+                    showLastUpdated(true);
+                } else {
+                    locationText.setText("Error fetching weather data");
+                }
                 retryButton.setVisibility(View.VISIBLE);
             }
-        });
+        };
+
+        // A nearby fix keeps the launch fetch, already under way or done
+        if (speculation == null || !speculation.claim(lat, lon, callback)) {
+            forecastRepository.getForecast(lat, lon, "imperial", callback);
+        }
     }
 
-    private void updateUI(ForecastResponse forecastResponse) {
+    // onRowsCommitted runs once the hourly rows are handed to the strip
+    private void updateUI(ForecastResponse forecastResponse, long fetchedAtMillis, Runnable onRowsCommitted) {
+        displayedFetchedAtMillis = fetchedAtMillis;
+
         // Update location
         String location = forecastResponse.getCity().getName() + ", " + forecastResponse.getCity().getCountry();
         locationText.setText(location);
 
-        // Update current weather (first forecast item)
-        if (!forecastResponse.getList().isEmpty()) {
-            ForecastResponse.Forecast current = forecastResponse.getList().get(0);
-            currentTempText.setText(String.format("%.0f°F", current.getMain().getTemp()));
+        // Skip slots that have already passed, which matters for a saved forecast
+        long now = System.currentTimeMillis() / 1000;
+        ForecastSeries series = forecastResponse.getSeries();
+        int current = Math.min(series.indexAtOrAfter(now - SLOT_SECONDS), Math.max(series.size() - 1, 0));
 
-            if (current.getWeather() != null && !current.getWeather().isEmpty()) {
-                weatherDescriptionText.setText(current.getWeather().get(0).getDescription());
+        // Update current weather
+        if (!series.isEmpty()) {
+            currentTempText.setText(String.format("%.0f°F", series.getTemp(current)));
+
+            if (series.hasCondition(current)) {
+                weatherDescriptionText.setText(series.getConditionDescription(current));
             }
         }
 
         // Need 9 items for 24hr forecast (24-27 hours bc OpenWeather fetches 3hr cycles)
-        List<ForecastResponse.Forecast> next24Hours = forecastResponse.getList().subList(
-                0, Math.min(9, forecastResponse.getList().size()));
-        adapter = new HourlyForecastAdapter(next24Hours);
-        hourlyForecastRecyclerView.setAdapter(adapter);
+        adapter.submit(series, current, Math.min(9, series.size() - current),
+                forecastResponse.getUtcOffsetSeconds(now), onRowsCommitted);
     }
 
-    private void scheduleEveningFreezeCheck(double lat, double lon) {
-        // Save coordinates for the background worker
-        SharedPreferences prefs = getSharedPreferences("weather_prefs", MODE_PRIVATE);
-        boolean alertsEnabled = prefs.getBoolean("freeze_alerts_enabled", true);
-
-        if (!alertsEnabled) {
-            Log.d("FreezeCheck", "Alerts disabled, not scheduling check");
-            return;
-        }
-        prefs.edit()
-                .putFloat("last_lat", (float) lat)
-                .putFloat("last_lon", (float) lon)
-                .apply();
-
-
-        // 6 PM check
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.HOUR_OF_DAY, 18);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-
-        if (Calendar.getInstance().after(calendar)) {
-            calendar.add(Calendar.DAY_OF_YEAR, 1);
-        }
-
-        long initialDelay = calendar.getTimeInMillis() - System.currentTimeMillis();
-
-        PeriodicWorkRequest dailyCheck = new PeriodicWorkRequest.Builder(
-                EveningFreezeCheckWorker.class, 24, TimeUnit.HOURS)
-                .setInitialDelay(initialDelay, TimeUnit.MILLISECONDS)
-                .build();
+    // The strip's next draw is the refresh's first frame; runnables posted from pre-draw run after it
+    private void finishOnNextFrame(RefreshTrace trace) {
+        ViewTreeObserver observer = hourlyForecastRecyclerView.getViewTreeObserver();
+        observer.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                hourlyForecastRecyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+                hourlyForecastRecyclerView.post(() -> trace.finish("ok"));
+                return true;
+            }
+        });
+        // An unchanged forecast dispatches no updates, so make sure a frame comes
+        hourlyForecastRecyclerView.invalidate();
+    }
 
-        WorkManager.getInstance(this).enqueueUniquePeriodicWork(
-                "dailyEveningFreezeCheck",
-                ExistingPeriodicWorkPolicy.REPLACE,
-                dailyCheck);
+    // Background refreshes pick up from this fetch at a time chosen from the forecast itself
+    private void scheduleAdaptiveRefresh(ForecastSnapshot snapshot) {
+        settingsStore.getAsync(settings -> {
+            List<AlertRule> rules = AlertRuleStore.getEnabled(settings);
+            if (!rules.isEmpty()) {
+                ForecastRefreshWorker.schedule(this, RefreshPolicy.nextRefreshAtMillis(snapshot, rules));
+            }
+        });
     }
 
-    private void scheduleMorningUmbrellaCheck() {
-        SharedPreferences prefs = getSharedPreferences("weather_prefs", MODE_PRIVATE);
-        boolean alertsEnabled = prefs.getBoolean("umbrella_alerts_enabled", false);
+    // A rule just switched on needs the refresh chain running, even if no fetch has happened yet
+    private void onAlertRulesChanged() {
+        scheduleAlertChecks();
+        ForecastSnapshotStore.getInstance(this).getAsync(snapshot -> {
+            if (snapshot != null) {
+                scheduleAdaptiveRefresh(snapshot);
+                return;
+            }
+            settingsStore.getAsync(settings -> {
+                if (AlertRuleStore.hasEnabled(settings)) {
+                    ForecastRefreshWorker.schedule(this, System.currentTimeMillis());
+                }
+            });
+        });
+    }
 
-        if (!alertsEnabled) {
-            return;
-        }
+    // A new site has no snapshot yet, so refresh now rather than at the current snapshot's expiry
+    private void onSavedLocationsChanged() {
+        settingsStore.getAsync(settings -> {
+            if (AlertRuleStore.hasEnabled(settings)) {
+                ForecastRefreshWorker.schedule(this, System.currentTimeMillis());
+            }
+        });
+    }
 
-        // 7 AM check
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.HOUR_OF_DAY, 7);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
+    private void scheduleAlertChecks() {
+        // Idempotent: alarms stay at their wall-clock times however often the app is opened
+        settingsStore.getAsync(settings -> AlertScheduler.sync(this, AlertRuleStore.getAll(settings)));
+    }
 
-        if (Calendar.getInstance().after(calendar)) {
-            calendar.add(Calendar.DAY_OF_YEAR, 1);
+    private void exportNetworkMetrics() {
+        File file = new File(getExternalFilesDir(null), "network_metrics.csv");
+        try (Writer out = new FileWriter(file)) {
+            RetrofitClient.getNetworkMetrics().exportCsv(out);
+            Toast.makeText(this, "Exported to " + file.getPath(), Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Log.e("NetworkMetrics", "Export failed", e);
+            Toast.makeText(this, "Export failed", Toast.LENGTH_SHORT).show();
         }
-
-        long initialDelay = calendar.getTimeInMillis() - System.currentTimeMillis();
-
-        PeriodicWorkRequest morningCheck = new PeriodicWorkRequest.Builder(
-                MorningUmbrellaCheckWorker.class, 24, TimeUnit.HOURS)
-                .setInitialDelay(initialDelay, TimeUnit.MILLISECONDS)
-                .build();
-
-        WorkManager.getInstance(this).enqueueUniquePeriodicWork(
-                "morningUmbrellaCheck",
-                ExistingPeriodicWorkPolicy.REPLACE,
-                morningCheck);
+        Log.d("NetworkMetrics", RetrofitClient.getNetworkMetrics().summary());
+        Log.d("RequestBudget", RetrofitClient.getRequestBudget(this).summary());
+        Log.d("ForecastPrefetcher", forecastPrefetcher.summary());
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
         locationService.stopLocationUpdates();
+        if (stripJankTracker != null) {
+            stripJankTracker.detach();
+        }
+        if (speculation != null) {
+            speculation.cancel();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.example.freezer;
+
+import android.app.Activity;
+import android.text.InputType;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AlertDialog;
+
+import com.example.freezer.model.SavedLocation;
+import com.example.freezer.repository.SavedLocationStore;
+import com.example.freezer.repository.SettingsStore;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimal editor for saved sites, like a cabin or greenhouse, that the alert checks watch
+ * alongside the device's own location: list them, add one by coordinates, or delete one.
+ */
+class SavedLocationsDialog {
+    private final Activity activity;
+    private final SettingsStore settingsStore;
+    private final SavedLocationStore locationStore;
+    // Runs after every change, e.g. to fetch a forecast for a new site
+    private final Runnable onChanged;
+
+    SavedLocationsDialog(Activity activity, Runnable onChanged) {
+        this.activity = activity;
+        this.settingsStore = SettingsStore.getInstance(activity);
+        this.locationStore = SavedLocationStore.getInstance(activity);
+        this.onChanged = onChanged;
+    }
+
+    void show() {
+        settingsStore.getAsync(settings -> {
+            if (activity.isFinishing()) {
+                return;
+            }
+            showSites(SavedLocationStore.getSaved(settings));
+        });
+    }
+
+    private void showSites(List<SavedLocation> sites) {
+        String[] names = new String[sites.size()];
+        for (int i = 0; i < sites.size(); i++) {
+            names[i] = describe(sites.get(i));
+        }
+
+        AlertDialog.Builder builder = new AlertDialog.Builder(activity)
+                .setTitle("Saved locations")
+                .setPositiveButton("Done", null)
+                .setNeutralButton("Add", (dialog, which) -> showAddSite());
+        if (sites.isEmpty()) {
+            builder.setMessage("Alerts cover your current location only");
+        } else {
+            builder.setItems(names, null);
+            builder.setNegativeButton("Delete", (dialog, which) -> showDelete(sites, names));
+        }
+        builder.show();
+    }
+
+    private void showDelete(List<SavedLocation> sites, String[] names) {
+        new AlertDialog.Builder(activity)
+                .setTitle("Delete location")
+                .setItems(names, (dialog, which) -> {
+                    locationStore.remove(sites.get(which).getId());
+                    onChanged.run();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showAddSite() {
+        LinearLayout form = new LinearLayout(activity);
+        form.setOrientation(LinearLayout.VERTICAL);
+        int padding = (int) (16 * activity.getResources().getDisplayMetrics().density);
+        form.setPadding(padding, padding, padding, 0);
+
+        EditText name = new EditText(activity);
+        name.setHint("Name, e.g. Cabin");
+        form.addView(name);
+        EditText lat = coordinateField("Latitude (-90 to 90)");
+        form.addView(lat);
+        EditText lon = coordinateField("Longitude (-180 to 180)");
+        form.addView(lon);
+
+        new AlertDialog.Builder(activity)
+                .setTitle("Add location")
+                .setView(form)
+                .setPositiveButton("Add", (dialog, which) -> {
+                    try {
+                        locationStore.add(name.getText().toString(),
+                                Double.parseDouble(lat.getText().toString()),
+                                Double.parseDouble(lon.getText().toString()));
+                        onChanged.run();
+                    } catch (IllegalArgumentException e) {
+                        // Also covers NumberFormatException from empty fields
+                        Toast.makeText(activity, "Invalid location: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                    }
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private EditText coordinateField(String hint) {
+        EditText field = new EditText(activity);
+        field.setHint(hint);
+        field.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_DECIMAL
+                | InputType.TYPE_NUMBER_FLAG_SIGNED);
+        return field;
+    }
+
+    private static String describe(SavedLocation site) {
+        return String.format(Locale.US, "%s (%.4f, %.4f)", site.getName(), site.getLat(), site.getLon());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.freezer.adapter;
+
+import com.example.freezer.model.ForecastSeries;
+import com.example.freezer.model.ForecastWindows;
+
+/**
+ * Display strings for each row of the hourly strip, computed once when data arrives so
+ * binding a row is just a few setText calls. Hour, temperature and precipitation labels
+ * come from shared tables, so identical values reuse the same String.
+ */
+public final class ForecastLabels {
+    private static final String[] HOUR_LABELS = new String[24];
+    private static final int MIN_CACHED_TEMP = -80;
+    private static final int MAX_CACHED_TEMP = 140;
+    private static final String[] TEMP_LABELS = new String[MAX_CACHED_TEMP - MIN_CACHED_TEMP + 1];
+    // 101 percentages x {none, rain, snow, rain and snow}
+    private static final String[] PRECIP_LABELS = new String[101 * 4];
+
+    static {
+        for (int hour = 0; hour < 24; hour++) {
+            HOUR_LABELS[hour] = (hour == 0 || hour == 12 ? 12 : hour % 12) + (hour < 12 ? "AM" : "PM");
+        }
+        for (int temp = MIN_CACHED_TEMP; temp <= MAX_CACHED_TEMP; temp++) {
+            TEMP_LABELS[temp - MIN_CACHED_TEMP] = temp + "°F";
+        }
+        for (int pop = 1; pop <= 100; pop++) {
+            PRECIP_LABELS[pop * 4] = pop + "%";
+            PRECIP_LABELS[pop * 4 + 1] = pop + "% ☔";
+            PRECIP_LABELS[pop * 4 + 2] = pop + "% ❄️";
+            PRECIP_LABELS[pop * 4 + 3] = pop + "% ☔❄️";
+        }
+        for (int flags = 0; flags < 4; flags++) {
+            PRECIP_LABELS[flags] = ""; // No precipitation
+        }
+    }
+
+    public static final ForecastLabels EMPTY = build(ForecastSeries.EMPTY, 0, 0, 0);
+
+    private final int count;
+    private final long[] ids;
+    private final String[] time;
+    private final String[] temp;
+    private final String[] condition;
+    private final String[] precip;
+
+    private ForecastLabels(int count) {
+        this.count = count;
+        ids = new long[count];
+        time = new String[count];
+        temp = new String[count];
+        condition = new String[count];
+        precip = new String[count];
+    }
+
+    // Labels for the count slots starting at series index from
+    public static ForecastLabels build(ForecastSeries series, int from, int count, int utcOffsetSeconds) {
+        ForecastLabels labels = new ForecastLabels(count);
+        for (int row = 0; row < count; row++) {
+            int i = from + row;
+            labels.ids[row] = series.getDt(i);
+            labels.time[row] = HOUR_LABELS[ForecastWindows.localHour(series.getDt(i), utcOffsetSeconds)];
+            labels.temp[row] = temperatureLabel(series.getTemp(i));
+            labels.condition[row] = series.hasCondition(i) ? series.getConditionMain(i) : "";
+            labels.precip[row] = precipitationLabel(series, i);
+        }
+        return labels;
+    }
+
+    public int size() { return count; }
+    public long getId(int i) { return ids[i]; }
+    public String getTime(int i) { return time[i]; }
+    public String getTemp(int i) { return temp[i]; }
+    public String getCondition(int i) { return condition[i]; }
+    public String getPrecip(int i) { return precip[i]; }
+
+    public boolean sameContents(int i, ForecastLabels other, int j) {
+        return time[i].equals(other.time[j])
+                && temp[i].equals(other.temp[j])
+                && condition[i].equals(other.condition[j])
+                && precip[i].equals(other.precip[j]);
+    }
+
+    static String temperatureLabel(float value) {
+        int rounded = Math.round(value);
+        if (rounded < MIN_CACHED_TEMP || rounded > MAX_CACHED_TEMP) {
+            return rounded + "°F";
+        }
+        return TEMP_LABELS[rounded - MIN_CACHED_TEMP];
+    }
+
+    static String precipitationLabel(ForecastSeries series, int i) {
+        int pop = Math.max(0, Math.min(100, Math.round(series.getPop(i) * 100))); // Convert to percentage
+        int flags = (series.getRain3h(i) > 0 ? 1 : 0) | (series.getSnow3h(i) > 0 ? 2 : 0);
+        return PRECIP_LABELS[pop * 4 + flags];
+    }
+}
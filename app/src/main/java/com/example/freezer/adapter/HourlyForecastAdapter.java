@@ -1,26 +1,67 @@
 package com.example.freezer.adapter;
 
 
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.freezer.R;
-import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Calendar;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 public class HourlyForecastAdapter extends RecyclerView.Adapter<HourlyForecastAdapter.ViewHolder> {
-    private List<ForecastResponse.Forecast> hourlyForecasts;
+    // Diffs are computed off the main thread, one at a time
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
 
-    public HourlyForecastAdapter(List<ForecastResponse.Forecast> hourlyForecasts) {
-        this.hourlyForecasts = hourlyForecasts;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private ForecastLabels labels = ForecastLabels.EMPTY;
+    private int submitGeneration;
+
+    public HourlyForecastAdapter() {
+        setHasStableIds(true);
+    }
+
+    /**
+     * Swaps in new data without replacing the adapter. The diff against the current rows
+     * runs in the background, together with building each row's display labels, and only
+     * slots whose labels changed are rebound.
+     * Must be called on the main thread; a newer submit supersedes any pending one.
+     */
+    public void submit(ForecastSeries newSeries, int from, int newCount, int newUtcOffsetSeconds) {
+        submit(newSeries, from, newCount, newUtcOffsetSeconds, null);
+    }
+
+    // onCommitted runs on the main thread once the new rows are dispatched, unless superseded
+    public void submit(ForecastSeries newSeries, int from, int newCount, int newUtcOffsetSeconds,
+                       Runnable onCommitted) {
+        int generation = ++submitGeneration;
+        ForecastLabels oldLabels = labels;
+
+        DIFF_EXECUTOR.execute(() -> {
+            ForecastLabels newLabels = ForecastLabels.build(newSeries, from, newCount, newUtcOffsetSeconds);
+            DiffUtil.DiffResult diff = DiffUtil.calculateDiff(
+                    new SlotDiffCallback(oldLabels, newLabels), false);
+
+            mainHandler.post(() -> {
+                if (generation != submitGeneration) {
+                    return;
+                }
+                labels = newLabels;
+                diff.dispatchUpdatesTo(this);
+                if (onCommitted != null) {
+                    onCommitted.run();
+                }
+            });
+        });
     }
 
     @NonNull
@@ -33,51 +74,52 @@ public class HourlyForecastAdapter extends RecyclerView.Adapter<HourlyForecastAd
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        ForecastResponse.Forecast forecast = hourlyForecasts.get(position);
-
-        // Format time
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(forecast.getDt() * 1000);
-        String time = formatTime(calendar);
-
-        holder.timeText.setText(time);
-        holder.tempText.setText(String.format("%.0f°F", forecast.getMain().getTemp()));
-
-        if (forecast.getWeather() != null && !forecast.getWeather().isEmpty()) {
-            holder.weatherText.setText(forecast.getWeather().get(0).getMain());
-        }
-        String precipDisplay = getPrecipitationDisplay(forecast);
-        holder.precipText.setText(precipDisplay);
+        holder.timeText.setText(labels.getTime(position));
+        holder.tempText.setText(labels.getTemp(position));
+        holder.weatherText.setText(labels.getCondition(position));
+        holder.precipText.setText(labels.getPrecip(position));
     }
 
     @Override
     public int getItemCount() {
-        return hourlyForecasts.size();
+        return labels.size();
     }
 
-    private String formatTime(Calendar calendar) {
-        int hour = calendar.get(Calendar.HOUR_OF_DAY);
-        return String.format("%d%s",
-                hour == 0 || hour == 12 ? 12 : hour % 12,
-                hour < 12 ? "AM" : "PM");
+    // Each 3-hour slot is identified by its timestamp
+    @Override
+    public long getItemId(int position) {
+        return labels.getId(position);
     }
-    private String getPrecipitationDisplay(ForecastResponse.Forecast forecast) {
-        double pop = forecast.getPop() * 100; // Convert to percentage
-        boolean hasRain = forecast.getRain() != null && forecast.getRain().getH3() > 0;
-        boolean hasSnow = forecast.getSnow() != null && forecast.getSnow().getH3() > 0;
-
-        if (pop > 0) {
-            if (hasRain && hasSnow) {
-                return String.format("%.0f%% ☔❄️", pop);
-            } else if (hasRain) {
-                return String.format("%.0f%% ☔", pop);
-            } else if (hasSnow) {
-                return String.format("%.0f%% ❄️", pop);
-            } else {
-                return String.format("%.0f%%", pop);
-            }
+
+    private static class SlotDiffCallback extends DiffUtil.Callback {
+        private final ForecastLabels oldLabels;
+        private final ForecastLabels newLabels;
+
+        SlotDiffCallback(ForecastLabels oldLabels, ForecastLabels newLabels) {
+            this.oldLabels = oldLabels;
+            this.newLabels = newLabels;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldLabels.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newLabels.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return oldLabels.getId(oldPosition) == newLabels.getId(newPosition);
+        }
+
+        // A row only needs rebinding if something it displays changed
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            return oldLabels.sameContents(oldPosition, newLabels, newPosition);
         }
-        return ""; // No precipitation
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,39 @@
+package com.example.freezer.api;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Network interceptor that gives forecast responses a freshness lifetime when the
+ * server does not send one. OkHttp then answers fresh requests from disk and sends a
+ * conditional request (If-None-Match / If-Modified-Since) once the entry goes stale.
+ */
+public class CacheFreshnessInterceptor implements Interceptor {
+    // Long enough to absorb repeat opens and rotations, short enough that a cached copy never
+    // lags a 3-hourly model run by much. Waiting for the next run is RefreshPolicy's job,
+    // since a stale entry here only costs a conditional request.
+    static final long MAX_AGE_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+
+        if (!response.isSuccessful() || hasExplicitFreshness(response)) {
+            return response;
+        }
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", "public, max-age=" + MAX_AGE_SECONDS)
+                .build();
+    }
+
+    private boolean hasExplicitFreshness(Response response) {
+        String cacheControl = response.header("Cache-Control");
+        return cacheControl != null
+                && (cacheControl.contains("max-age") || cacheControl.contains("no-store"));
+    }
+}
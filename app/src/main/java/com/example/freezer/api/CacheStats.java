@@ -0,0 +1,76 @@
+package com.example.freezer.api;
+
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide counters for the forecast HTTP cache. Shared by the UI and both workers.
+ */
+public class CacheStats {
+    private static final String TAG = "HttpCache";
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger revalidated = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicInteger staleFallbacks = new AtomicInteger();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    void recordHit(long bodyBytes) {
+        hits.incrementAndGet();
+        addBytesSaved(bodyBytes);
+        log("hit");
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+        log("miss");
+    }
+
+    void recordRevalidation(boolean wasNotModified, long bodyBytes) {
+        revalidated.incrementAndGet();
+        if (wasNotModified) {
+            notModified.incrementAndGet();
+            addBytesSaved(bodyBytes);
+        }
+        log(wasNotModified ? "revalidated (304)" : "revalidated (changed)");
+    }
+
+    void recordStaleFallback(long bodyBytes) {
+        staleFallbacks.incrementAndGet();
+        addBytesSaved(bodyBytes);
+        log("stale fallback");
+    }
+
+    private void addBytesSaved(long bodyBytes) {
+        if (bodyBytes > 0) {
+            bytesSaved.addAndGet(bodyBytes);
+        }
+    }
+
+    public int getHitCount() { return hits.get(); }
+    public int getMissCount() { return misses.get(); }
+    public int getRevalidatedCount() { return revalidated.get(); }
+    public int getNotModifiedCount() { return notModified.get(); }
+    public int getStaleFallbackCount() { return staleFallbacks.get(); }
+    public long getBytesSaved() { return bytesSaved.get(); }
+
+    // Every answer that did not need a full download from the network
+    public int getRoundTripsSaved() { return hits.get() + staleFallbacks.get(); }
+
+    private void log(String outcome) {
+        Log.d(TAG, outcome + " | " + this);
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits.get()
+                + " misses=" + misses.get()
+                + " revalidated=" + revalidated.get()
+                + " (304=" + notModified.get() + ")"
+                + " staleFallbacks=" + staleFallbacks.get()
+                + " bytesSaved=" + bytesSaved.get();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.freezer.api;
+
+import android.os.Trace;
+
+import com.example.freezer.model.ForecastResponse;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Retrofit converter that hands {@link ForecastResponse} bodies to {@link ForecastJsonDecoder}.
+ */
+public class ForecastConverterFactory extends Converter.Factory {
+
+    public static ForecastConverterFactory create() {
+        return new ForecastConverterFactory();
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        if (type != ForecastResponse.class) {
+            return null;
+        }
+        return new Converter<ResponseBody, ForecastResponse>() {
+            @Override
+            public ForecastResponse convert(ResponseBody value) throws IOException {
+                long startedAt = System.nanoTime();
+                Trace.beginSection("ForecastJsonDecoder.decode");
+                try {
+                    ForecastResponse forecast = ForecastJsonDecoder.decode(value.charStream());
+                    forecast.setDecodeMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                    return forecast;
+                } finally {
+                    Trace.endSection();
+                    value.close();
+                }
+            }
+        };
+    }
+}
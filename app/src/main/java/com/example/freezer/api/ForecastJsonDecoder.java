@@ -0,0 +1,245 @@
+package com.example.freezer.api;
+
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming decoder for the /forecast payload. Binds only the fields the app reads and
+ * skips everything else without building intermediate trees or using reflection.
+ * Slots go straight into a {@link ForecastSeries}.
+ */
+public final class ForecastJsonDecoder {
+    // The 5-day endpoint returns 40 three-hour slots
+    private static final int EXPECTED_SLOTS = 40;
+
+    private ForecastJsonDecoder() {
+    }
+
+    public static ForecastResponse decode(Reader in) throws IOException {
+        return decode(new JsonReader(in));
+    }
+
+    public static ForecastResponse decode(JsonReader reader) throws IOException {
+        ForecastResponse response = new ForecastResponse();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "list":
+                    if (skipIfNull(reader)) break;
+                    response.setSeries(readSeries(reader));
+                    break;
+                case "city":
+                    if (skipIfNull(reader)) break;
+                    response.setCity(readCity(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return response;
+    }
+
+    private static ForecastSeries readSeries(JsonReader reader) throws IOException {
+        ForecastSeries.Builder builder = new ForecastSeries.Builder(EXPECTED_SLOTS);
+        Slot slot = new Slot();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            slot.reset();
+            readSlot(reader, slot);
+            builder.add(slot.dt, slot.temp, slot.feelsLike, slot.humidity, slot.pop,
+                    slot.rain3h, slot.snow3h, slot.windSpeed,
+                    slot.conditionMain, slot.conditionDescription, slot.conditionIcon);
+        }
+        reader.endArray();
+        return builder.build();
+    }
+
+    private static void readSlot(JsonReader reader, Slot slot) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "dt":
+                    slot.dt = reader.nextLong();
+                    break;
+                case "main":
+                    if (skipIfNull(reader)) break;
+                    readMain(reader, slot);
+                    break;
+                case "weather":
+                    if (skipIfNull(reader)) break;
+                    readFirstWeather(reader, slot);
+                    break;
+                case "rain":
+                    if (skipIfNull(reader)) break;
+                    slot.rain3h = readThreeHourVolume(reader);
+                    break;
+                case "snow":
+                    if (skipIfNull(reader)) break;
+                    slot.snow3h = readThreeHourVolume(reader);
+                    break;
+                case "wind":
+                    if (skipIfNull(reader)) break;
+                    slot.windSpeed = readWindSpeed(reader);
+                    break;
+                case "pop":
+                    slot.pop = (float) reader.nextDouble();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readMain(JsonReader reader, Slot slot) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "temp":
+                    slot.temp = (float) reader.nextDouble();
+                    break;
+                case "feels_like":
+                    slot.feelsLike = (float) reader.nextDouble();
+                    break;
+                case "humidity":
+                    slot.humidity = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    // Only weather[0] is ever displayed, so later conditions are skipped
+    private static void readFirstWeather(JsonReader reader, Slot slot) throws IOException {
+        reader.beginArray();
+        if (reader.hasNext()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "main":
+                        slot.conditionMain = nextStringOrNull(reader);
+                        break;
+                    case "description":
+                        slot.conditionDescription = nextStringOrNull(reader);
+                        break;
+                    case "icon":
+                        slot.conditionIcon = nextStringOrNull(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+    }
+
+    // rain/snow objects carry their volume under the "3h" key
+    private static float readThreeHourVolume(JsonReader reader) throws IOException {
+        float volume = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("3h".equals(reader.nextName())) {
+                volume = (float) reader.nextDouble();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return volume;
+    }
+
+    private static float readWindSpeed(JsonReader reader) throws IOException {
+        float speed = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("speed".equals(reader.nextName())) {
+                speed = (float) reader.nextDouble();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return speed;
+    }
+
+    private static ForecastResponse.City readCity(JsonReader reader) throws IOException {
+        ForecastResponse.City city = new ForecastResponse.City();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    city.setName(nextStringOrNull(reader));
+                    break;
+                case "country":
+                    city.setCountry(nextStringOrNull(reader));
+                    break;
+                case "timezone":
+                    if (skipIfNull(reader)) break;
+                    city.setTimezone(reader.nextInt());
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return city;
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    private static boolean skipIfNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    // Scratch space reused for every slot of one response
+    private static final class Slot {
+        long dt;
+        float temp;
+        float feelsLike;
+        int humidity;
+        float pop;
+        float rain3h;
+        float snow3h;
+        float windSpeed;
+        String conditionMain;
+        String conditionDescription;
+        String conditionIcon;
+
+        void reset() {
+            dt = 0;
+            temp = 0;
+            feelsLike = 0;
+            humidity = 0;
+            pop = 0;
+            rain3h = 0;
+            snow3h = 0;
+            windSpeed = 0;
+            conditionMain = null;
+            conditionDescription = null;
+            conditionIcon = null;
+        }
+    }
+}
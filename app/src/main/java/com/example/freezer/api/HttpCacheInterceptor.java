@@ -0,0 +1,78 @@
+package com.example.freezer.api;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Application interceptor that falls back to a stale cached forecast when the network
+ * is unreachable, and records how each response was served in {@link CacheStats}.
+ */
+public class HttpCacheInterceptor implements Interceptor {
+    // Stale forecasts are still more useful than an error screen for up to a day
+    private static final int MAX_STALE_DAYS = 1;
+
+    private final CacheStats stats;
+
+    public HttpCacheInterceptor(CacheStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException networkError) {
+            Response stale = proceedFromCache(chain, request);
+            if (stale == null) {
+                throw networkError;
+            }
+            stats.recordStaleFallback(stale.body() != null ? stale.body().contentLength() : -1);
+            return stale;
+        }
+
+        record(response);
+        return response;
+    }
+
+    private Response proceedFromCache(Chain chain, Request request) {
+        Request cacheOnly = request.newBuilder()
+                .cacheControl(new CacheControl.Builder()
+                        .onlyIfCached()
+                        .maxStale(MAX_STALE_DAYS, TimeUnit.DAYS)
+                        .build())
+                .build();
+        try {
+            Response cached = chain.proceed(cacheOnly);
+            // OkHttp answers 504 when only-if-cached cannot be satisfied
+            if (cached.code() == 504) {
+                cached.close();
+                return null;
+            }
+            return cached;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void record(Response response) {
+        Response cacheResponse = response.cacheResponse();
+        Response networkResponse = response.networkResponse();
+        long bodyBytes = response.body() != null ? response.body().contentLength() : -1;
+
+        if (cacheResponse != null && networkResponse == null) {
+            stats.recordHit(bodyBytes);
+        } else if (cacheResponse != null) {
+            stats.recordRevalidation(networkResponse.code() == 304, bodyBytes);
+        } else if (networkResponse != null) {
+            stats.recordMiss();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.freezer.api;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Rolling window of per-call network timings recorded by {@link NetworkMetricsListener}.
+ * Percentiles are computed on demand over the last {@link #WINDOW_SIZE} calls.
+ */
+public class NetworkMetrics {
+    private static final String TAG = "NetworkMetrics";
+    static final int WINDOW_SIZE = 200;
+
+    public enum Phase { DNS, CONNECT, TLS, TTFB, BODY_READ, TOTAL }
+
+    // One ring per phase, in milliseconds; -1 means the phase didn't happen (e.g. reused connection)
+    private final long[][] samples = new long[Phase.values().length][WINDOW_SIZE];
+    private final long[] bytes = new long[WINDOW_SIZE];
+    private final boolean[] failed = new boolean[WINDOW_SIZE];
+    private int next;
+    private int count;
+
+    synchronized void record(long[] phaseMillis, long byteCount, boolean callFailed) {
+        for (int phase = 0; phase < samples.length; phase++) {
+            samples[phase][next] = phaseMillis[phase];
+        }
+        bytes[next] = byteCount;
+        failed[next] = callFailed;
+        next = (next + 1) % WINDOW_SIZE;
+        if (count < WINDOW_SIZE) {
+            count++;
+        }
+    }
+
+    public synchronized int getSampleCount() {
+        return count;
+    }
+
+    /**
+     * Nearest-rank percentile (0-100) of a phase over the window, ignoring calls where the
+     * phase was skipped. Returns -1 when there is no data.
+     */
+    public synchronized long getPercentile(Phase phase, double percentile) {
+        long[] values = new long[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            long value = samples[phase.ordinal()][i];
+            if (value >= 0) {
+                values[n++] = value;
+            }
+        }
+        if (n == 0) {
+            return -1;
+        }
+        Arrays.sort(values, 0, n);
+        int rank = (int) Math.ceil(percentile / 100.0 * n);
+        return values[Math.max(0, Math.min(n - 1, rank - 1))];
+    }
+
+    public synchronized long getTotalBytes() {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += bytes[i];
+        }
+        return total;
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder();
+        out.append("calls=").append(getSampleCount());
+        for (Phase phase : Phase.values()) {
+            out.append(String.format(Locale.US, " %s(p50=%d p95=%d)",
+                    phase.name().toLowerCase(Locale.US),
+                    getPercentile(phase, 50), getPercentile(phase, 95)));
+        }
+        out.append(" bytes=").append(getTotalBytes());
+        return out.toString();
+    }
+
+    void logSummary() {
+        Log.d(TAG, summary());
+    }
+
+    // Oldest call first, one row per call
+    public synchronized void exportCsv(Writer out) throws IOException {
+        out.write("dns_ms,connect_ms,tls_ms,ttfb_ms,body_read_ms,total_ms,bytes,failed\n");
+        int start = count < WINDOW_SIZE ? 0 : next;
+        for (int i = 0; i < count; i++) {
+            int slot = (start + i) % WINDOW_SIZE;
+            for (long[] phase : samples) {
+                out.write(Long.toString(phase[slot]));
+                out.write(',');
+            }
+            out.write(Long.toString(bytes[slot]));
+            out.write(',');
+            out.write(failed[slot] ? "1" : "0");
+            out.write('\n');
+        }
+    }
+}
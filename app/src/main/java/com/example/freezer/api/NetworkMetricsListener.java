@@ -0,0 +1,134 @@
+package com.example.freezer.api;
+
+import com.example.freezer.BuildConfig;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+/**
+ * Per-call OkHttp event listener that times DNS, connect, TLS, time-to-first-byte and
+ * body read, and records the result into {@link NetworkMetrics} when the call ends.
+ */
+public class NetworkMetricsListener extends EventListener {
+    private final NetworkMetrics metrics;
+
+    private long callStart;
+    private long dnsStart = -1, dnsEnd = -1;
+    private long connectStart = -1, connectEnd = -1;
+    private long secureConnectStart = -1, secureConnectEnd = -1;
+    private long requestEnd = -1;
+    private long responseHeadersStart = -1;
+    private long bodyStart = -1, bodyEnd = -1;
+    private long byteCount;
+
+    public static EventListener.Factory factory(NetworkMetrics metrics) {
+        return call -> new NetworkMetricsListener(metrics);
+    }
+
+    NetworkMetricsListener(NetworkMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsEnd = System.nanoTime();
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        secureConnectEnd = System.nanoTime();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connectEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        responseHeadersStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        bodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        bodyEnd = System.nanoTime();
+        this.byteCount = byteCount;
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        finish(false);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        finish(true);
+    }
+
+    private void finish(boolean failed) {
+        long[] phases = new long[NetworkMetrics.Phase.values().length];
+        phases[NetworkMetrics.Phase.DNS.ordinal()] = millisBetween(dnsStart, dnsEnd);
+        phases[NetworkMetrics.Phase.CONNECT.ordinal()] = millisBetween(connectStart, connectEnd);
+        phases[NetworkMetrics.Phase.TLS.ordinal()] = millisBetween(secureConnectStart, secureConnectEnd);
+        phases[NetworkMetrics.Phase.TTFB.ordinal()] = millisBetween(requestEnd, responseHeadersStart);
+        phases[NetworkMetrics.Phase.BODY_READ.ordinal()] = millisBetween(bodyStart, bodyEnd);
+        phases[NetworkMetrics.Phase.TOTAL.ordinal()] = millisBetween(callStart, System.nanoTime());
+
+        metrics.record(phases, byteCount, failed);
+        if (BuildConfig.DEBUG) {
+            metrics.logSummary();
+        }
+    }
+
+    private static long millisBetween(long startNanos, long endNanos) {
+        if (startNanos < 0 || endNanos < 0) {
+            return -1;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.freezer.api;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Client-side budget for the shared forecast API key. Each key gets a token bucket of
+ * {@link #BURST} requests refilled at {@link #REFILL_PER_HOUR} an hour, a provider
+ * Retry-After blocks every request until it passes, and {@link #FAILURE_THRESHOLD}
+ * failures in a row open a circuit breaker for {@link #OPEN_MILLIS}. Once that time is up,
+ * one trial request decides whether the breaker closes or opens again. Requests turned
+ * away here never reach the provider; see {@link RequestBudgetInterceptor}.
+ * Deadlines, breaker state and tokens are saved to preferences, so a new process or a
+ * reboot doesn't hand out a fresh budget or forget a Retry-After.
+ */
+public class RequestBudget {
+    private static final String TAG = "RequestBudget";
+    // The key is shared by every install, so each device takes a small slice of its quota
+    static final int BURST = 10;
+    static final int REFILL_PER_HOUR = 30;
+    static final int FAILURE_THRESHOLD = 3;
+    static final long OPEN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    // Used when a 429 comes without a usable Retry-After
+    static final long DEFAULT_RETRY_AFTER_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    static final String KEY_STATE = "breaker_state";
+    static final String KEY_CONSECUTIVE_FAILURES = "consecutive_failures";
+    static final String KEY_OPEN_UNTIL = "open_until";
+    static final String KEY_RETRY_AFTER_UNTIL = "retry_after_until";
+
+    public enum BreakerState { CLOSED, OPEN, HALF_OPEN }
+
+    private final int burst;
+    private final long refillIntervalMillis;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+    // Null when nothing should outlive the process
+    private final SharedPreferences prefs;
+
+    // Guarded by this
+    private boolean restored;
+    private final Map<String, Bucket> buckets = new HashMap<>();
+    private BreakerState state = BreakerState.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private long retryAfterUntil;
+    private boolean trialInFlight;
+
+    private int allowed;
+    private int throttled;
+    private int shortCircuited;
+    private int rateLimited;
+    private int failures;
+    private int cancelled;
+    private int breakerOpenings;
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+    }
+
+    // Wall-clock time, since saved deadlines have to mean the same thing after a reboot
+    public RequestBudget(SharedPreferences prefs) {
+        this(prefs, BURST, REFILL_PER_HOUR, FAILURE_THRESHOLD, OPEN_MILLIS, System::currentTimeMillis);
+    }
+
+    RequestBudget(int burst, int refillPerHour, int failureThreshold, long openMillis, LongSupplier clock) {
+        this(null, burst, refillPerHour, failureThreshold, openMillis, clock);
+    }
+
+    // Saved state is read on first use, which is on a network thread
+    RequestBudget(SharedPreferences prefs, int burst, int refillPerHour, int failureThreshold, long openMillis,
+                  LongSupplier clock) {
+        this.prefs = prefs;
+        this.burst = burst;
+        this.refillIntervalMillis = TimeUnit.HOURS.toMillis(1) / refillPerHour;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one request from key's budget, or throws without taking anything if the
+     * breaker is open, the provider asked us to wait, or the bucket is empty.
+     */
+    synchronized void acquire(String key) throws ThrottledException {
+        restore();
+        long now = clock.getAsLong();
+        if (state == BreakerState.OPEN) {
+            if (now < openUntil) {
+                shortCircuited++;
+                throw new ThrottledException("Circuit breaker open", openUntil - now);
+            }
+            state = BreakerState.HALF_OPEN;
+            trialInFlight = false;
+            Log.d(TAG, "Breaker half-open, allowing a trial request");
+        }
+        if (state == BreakerState.HALF_OPEN && trialInFlight) {
+            shortCircuited++;
+            throw new ThrottledException("Circuit breaker trial in flight", openMillis);
+        }
+        if (now < retryAfterUntil) {
+            throttled++;
+            throw new ThrottledException("Provider asked to retry later", retryAfterUntil - now);
+        }
+
+        Bucket bucket = bucket(key, now);
+        if (bucket.tokens < 1) {
+            throttled++;
+            throw new ThrottledException("Request budget exhausted",
+                    (long) Math.ceil((1 - bucket.tokens) * refillIntervalMillis));
+        }
+        bucket.tokens--;
+        if (state == BreakerState.HALF_OPEN) {
+            trialInFlight = true;
+        }
+        allowed++;
+        save(key, bucket);
+    }
+
+    synchronized void recordSuccess() {
+        restore();
+        consecutiveFailures = 0;
+        if (state != BreakerState.CLOSED) {
+            state = BreakerState.CLOSED;
+            Log.d(TAG, "Breaker closed");
+        }
+        save(null, null);
+    }
+
+    // A network error, 5xx or client error; retryAfterMillis is 0 when the provider didn't say
+    synchronized void recordFailure(long retryAfterMillis) {
+        restore();
+        long now = clock.getAsLong();
+        failures++;
+        consecutiveFailures++;
+        if (retryAfterMillis > 0) {
+            retryAfterUntil = Math.max(retryAfterUntil, now + retryAfterMillis);
+        }
+        if (state == BreakerState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = BreakerState.OPEN;
+            openUntil = now + Math.max(openMillis, retryAfterMillis);
+            breakerOpenings++;
+            Log.d(TAG, "Breaker open for " + (openUntil - now) + " ms after " + consecutiveFailures + " failures");
+        }
+        save(null, null);
+    }
+
+    // Our own code cancelled the call, which says nothing about the provider
+    synchronized void recordCancelled() {
+        restore();
+        cancelled++;
+        if (state == BreakerState.HALF_OPEN) {
+            // Let another request be the trial
+            trialInFlight = false;
+        }
+    }
+
+    // HTTP 429: the budget itself was spent, which isn't a sign the provider is down
+    synchronized void recordRateLimited(long retryAfterMillis) {
+        restore();
+        rateLimited++;
+        long wait = retryAfterMillis > 0 ? retryAfterMillis : DEFAULT_RETRY_AFTER_MILLIS;
+        retryAfterUntil = Math.max(retryAfterUntil, clock.getAsLong() + wait);
+        if (state == BreakerState.HALF_OPEN) {
+            trialInFlight = false;
+        }
+        save(null, null);
+    }
+
+    private Bucket bucket(String key, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new Bucket();
+            String tokensKey = tokensKey(key);
+            if (prefs != null && prefs.contains(tokensKey)) {
+                bucket.tokens = Math.min(burst, prefs.getFloat(tokensKey, burst));
+                bucket.refilledAt = prefs.getLong(refilledAtKey(key), now);
+            } else {
+                bucket.tokens = burst;
+                bucket.refilledAt = now;
+            }
+            buckets.put(key, bucket);
+        }
+        // A clock set backwards refills nothing rather than draining the bucket
+        long elapsed = Math.max(0, now - bucket.refilledAt);
+        bucket.tokens = Math.min(burst, bucket.tokens + elapsed / (double) refillIntervalMillis);
+        bucket.refilledAt = now;
+        return bucket;
+    }
+
+    // Caller holds the lock
+    private void restore() {
+        if (restored) {
+            return;
+        }
+        restored = true;
+        if (prefs == null) {
+            return;
+        }
+        openUntil = prefs.getLong(KEY_OPEN_UNTIL, 0);
+        retryAfterUntil = prefs.getLong(KEY_RETRY_AFTER_UNTIL, 0);
+        consecutiveFailures = prefs.getInt(KEY_CONSECUTIVE_FAILURES, 0);
+        try {
+            state = BreakerState.valueOf(prefs.getString(KEY_STATE, BreakerState.CLOSED.name()));
+        } catch (IllegalArgumentException e) {
+            state = BreakerState.CLOSED;
+        }
+        // A trial that was in flight died with its process, so allow another
+        trialInFlight = false;
+        if (state != BreakerState.CLOSED) {
+            Log.d(TAG, "Restored breaker " + state + ", open until " + openUntil);
+        }
+    }
+
+    // Caller holds the lock; bucket is null when only the breaker changed
+    private void save(String key, Bucket bucket) {
+        if (prefs == null) {
+            return;
+        }
+        SharedPreferences.Editor editor = prefs.edit()
+                .putString(KEY_STATE, state.name())
+                .putInt(KEY_CONSECUTIVE_FAILURES, consecutiveFailures)
+                .putLong(KEY_OPEN_UNTIL, openUntil)
+                .putLong(KEY_RETRY_AFTER_UNTIL, retryAfterUntil);
+        if (bucket != null) {
+            editor.putFloat(tokensKey(key), (float) bucket.tokens)
+                    .putLong(refilledAtKey(key), bucket.refilledAt);
+        }
+        editor.apply();
+    }
+
+    // Keyed by a hash so the API key itself isn't written out
+    private static String tokensKey(String key) {
+        return "tokens_" + Integer.toHexString(key.hashCode());
+    }
+
+    private static String refilledAtKey(String key) {
+        return "refilled_at_" + Integer.toHexString(key.hashCode());
+    }
+
+    public synchronized BreakerState getBreakerState() {
+        restore();
+        return state;
+    }
+
+    public synchronized int getAllowedCount() { return allowed; }
+    public synchronized int getThrottledCount() { return throttled; }
+    public synchronized int getShortCircuitedCount() { return shortCircuited; }
+    public synchronized int getRateLimitedCount() { return rateLimited; }
+    public synchronized int getFailureCount() { return failures; }
+    public synchronized int getCancelledCount() { return cancelled; }
+    public synchronized int getBreakerOpenCount() { return breakerOpenings; }
+
+    // Whole tokens left for key right now
+    public synchronized int getRemaining(String key) {
+        restore();
+        return (int) bucket(key, clock.getAsLong()).tokens;
+    }
+
+    public synchronized String summary() {
+        restore();
+        return "sent=" + allowed + " throttled=" + throttled + " shortCircuited=" + shortCircuited
+                + " rateLimited=" + rateLimited + " failures=" + failures + " cancelled=" + cancelled
+                + " breaker=" + state + " openings=" + breakerOpenings;
+    }
+}
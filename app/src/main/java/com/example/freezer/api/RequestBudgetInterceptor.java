@@ -0,0 +1,83 @@
+package com.example.freezer.api;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Network interceptor that charges every request reaching the provider to its API key's
+ * {@link RequestBudget}, so cache hits are free. A 429 or 5xx is turned into a
+ * {@link ThrottledException} after it's recorded, letting {@link HttpCacheInterceptor}
+ * serve the cached forecast instead of the error. Other 4xx responses, such as a 401 for
+ * a revoked key, count as failures but reach the caller unchanged. Calls we cancel
+ * ourselves, like a speculative fetch that missed, aren't failures.
+ */
+public class RequestBudgetInterceptor implements Interceptor {
+    private static final String KEY_PARAM = "appid";
+
+    private final RequestBudget budget;
+
+    public RequestBudgetInterceptor(RequestBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String key = request.url().queryParameter(KEY_PARAM);
+        budget.acquire(key != null ? key : "");
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            // callTimeout cancels too, but RetrofitClient's connect and read timeouts fit inside
+            // it, so a stalled provider still fails here with a SocketTimeoutException first
+            if (chain.call().isCanceled()) {
+                budget.recordCancelled();
+            } else {
+                budget.recordFailure(0);
+            }
+            throw e;
+        }
+
+        int code = response.code();
+        if (code == 429) {
+            long retryAfter = retryAfterMillis(response);
+            budget.recordRateLimited(retryAfter);
+            response.close();
+            throw new ThrottledException("HTTP 429 from provider", retryAfter);
+        }
+        if (code >= 500) {
+            long retryAfter = retryAfterMillis(response);
+            budget.recordFailure(retryAfter);
+            response.close();
+            throw new ThrottledException("HTTP " + code + " from provider", retryAfter);
+        }
+        if (code >= 400) {
+            // Repeating the request won't fix it, so it mustn't close the breaker either
+            budget.recordFailure(0);
+            return response;
+        }
+        budget.recordSuccess();
+        return response;
+    }
+
+    // Retry-After is either delta-seconds or an HTTP date; 0 when absent or unparseable
+    static long retryAfterMillis(Response response) {
+        String value = response.header("Retry-After");
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException notSeconds) {
+            Date date = response.headers().getDate("Retry-After");
+            return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : 0;
+        }
+    }
+}
@@ -1,30 +1,140 @@
 package com.example.freezer.api;
 
+import android.content.Context;
+
+import com.example.freezer.BuildConfig;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
 import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 
+/**
+ * Process-wide HTTP stack. Foreground (UI) and background (worker) traffic share one
+ * connection pool, cache and metrics, but run on separate dispatchers so a background
+ * check can't starve the UI fetch.
+ */
 public class RetrofitClient {
-    private static final String BASE_URL = "https://api.openweathermap.org/data/2.5/";
-    private static Retrofit retrofit = null;
+    private static final String BASE_URL = BuildConfig.WEATHER_BASE_URL;
+    private static final String CACHE_DIR_NAME = "http_cache";
+    private static final String BUDGET_PREFS_NAME = "request_budget";
+    private static final long CACHE_SIZE_BYTES = 5 * 1024 * 1024;
+
+    private static final long CONNECT_TIMEOUT_SECONDS = 10;
+    private static final long READ_TIMEOUT_SECONDS = 20;
+    private static final long CALL_TIMEOUT_SECONDS = 30;
+    // Keep warm TLS connections long enough to cover a refresh followed by a worker run
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    private static final int FOREGROUND_MAX_REQUESTS = 8;
+    private static final int FOREGROUND_MAX_REQUESTS_PER_HOST = 4;
+    private static final int BACKGROUND_MAX_REQUESTS = 2;
+    private static final int BACKGROUND_MAX_REQUESTS_PER_HOST = 2;
+
+    private static final CacheStats cacheStats = new CacheStats();
+    private static final NetworkMetrics networkMetrics = new NetworkMetrics();
+    private static volatile RequestBudget requestBudget;
+
+    private static volatile WeatherAPI foregroundApi;
+    private static volatile WeatherAPI backgroundApi;
+
+    // For user-visible fetches
+    public static WeatherAPI getForegroundApi(Context context) {
+        if (foregroundApi == null) {
+            initialize(context);
+        }
+        return foregroundApi;
+    }
+
+    // For workers and other work the user isn't waiting on
+    public static WeatherAPI getBackgroundApi(Context context) {
+        if (backgroundApi == null) {
+            initialize(context);
+        }
+        return backgroundApi;
+    }
+
+    private static synchronized void initialize(Context context) {
+        if (foregroundApi != null) {
+            return;
+        }
 
-    public static Retrofit getClient() {
-        if (retrofit == null) {
+        Context appContext = context.getApplicationContext();
+        File cacheDir = new File(appContext.getCacheDir(), CACHE_DIR_NAME);
+        requestBudget = new RequestBudget(appContext.getSharedPreferences(BUDGET_PREFS_NAME, Context.MODE_PRIVATE));
 
+        OkHttpClient foregroundClient = newClientBuilder(new Cache(cacheDir, CACHE_SIZE_BYTES),
+                cacheStats, networkMetrics, requestBudget)
+                .dispatcher(newDispatcher(FOREGROUND_MAX_REQUESTS, FOREGROUND_MAX_REQUESTS_PER_HOST))
+                .build();
+
+        // newBuilder() shares the pool, cache and interceptors; only the dispatcher differs
+        OkHttpClient backgroundClient = foregroundClient.newBuilder()
+                .dispatcher(newDispatcher(BACKGROUND_MAX_REQUESTS, BACKGROUND_MAX_REQUESTS_PER_HOST))
+                .build();
+
+        backgroundApi = createApi(backgroundClient, BASE_URL);
+        foregroundApi = createApi(foregroundClient, BASE_URL);
+    }
+
+    // The interceptor chain every client shares; package-private so tests can replay against a local server
+    static OkHttpClient.Builder newClientBuilder(Cache cache, CacheStats stats, NetworkMetrics metrics,
+                                                 RequestBudget budget) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .cache(cache)
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .callTimeout(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .eventListenerFactory(NetworkMetricsListener.factory(metrics))
+                .addInterceptor(new HttpCacheInterceptor(stats))
+                // Charges only requests that miss the cache; both dispatchers share one budget
+                .addNetworkInterceptor(new RequestBudgetInterceptor(budget))
+                .addNetworkInterceptor(new CacheFreshnessInterceptor());
+
+        // BODY logging buffers the whole forecast, so only log request lines, and only in debug
+        if (BuildConfig.DEBUG) {
             HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-            logging.setLevel(HttpLoggingInterceptor.Level.BODY);
+            logging.setLevel(HttpLoggingInterceptor.Level.BASIC);
+            builder.addInterceptor(logging);
+        }
+        return builder;
+    }
 
-            OkHttpClient client = new OkHttpClient.Builder()
-                    .addInterceptor(logging)
-                    .build();
+    private static Dispatcher newDispatcher(int maxRequests, int maxRequestsPerHost) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        return dispatcher;
+    }
+
+    static WeatherAPI createApi(OkHttpClient client, String baseUrl) {
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(client)
+                .addConverterFactory(ForecastConverterFactory.create())
+                .build()
+                .create(WeatherAPI.class);
+    }
+
+    public static CacheStats getCacheStats() {
+        return cacheStats;
+    }
+
+    public static NetworkMetrics getNetworkMetrics() {
+        return networkMetrics;
+    }
 
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .client(client)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .build();
+    public static RequestBudget getRequestBudget(Context context) {
+        if (requestBudget == null) {
+            initialize(context);
         }
-        return retrofit;
+        return requestBudget;
     }
 }
@@ -0,0 +1,21 @@
+package com.example.freezer.api;
+
+import java.io.IOException;
+
+/**
+ * Thrown for a forecast request the {@link RequestBudget} turned away or the provider
+ * refused. It's an IOException so {@link HttpCacheInterceptor} answers from the cache
+ * where it can, as it would when offline.
+ */
+public class ThrottledException extends IOException {
+    private final long retryAfterMillis;
+
+    public ThrottledException(String message, long retryAfterMillis) {
+        super(message + ", retry in " + retryAfterMillis + " ms");
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.freezer.diagnostics;
+
+import android.os.Build;
+import android.os.Trace;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stage-by-stage timing of one foreground refresh. Each stage is also an async section
+ * ("refresh:location", "refresh:network", ...) in system traces on API 29+, so a Perfetto
+ * capture shows the same breakdown as the diagnostics screen.
+ */
+public final class RefreshTrace {
+    public enum Stage {
+        LOCATION("loc"),
+        // The Retrofit call up to the converter; the body is read as it's parsed
+        NETWORK("net"),
+        PARSE("parse"),
+        // updateUI until the adapter commits the rows, including any background diff
+        UPDATE_UI("ui"),
+        // From the adapter committing the rows until the strip draws them
+        FIRST_FRAME("frame");
+
+        final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        String sectionName() {
+            return "refresh:" + name().toLowerCase(Locale.US);
+        }
+    }
+
+    private static final AtomicInteger nextCookie = new AtomicInteger();
+
+    private final String trigger;
+    private final int cookie = nextCookie.incrementAndGet();
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    // Guarded by this; -1 until the stage begins, and until it ends
+    private final long[] beganAtNanos = new long[Stage.values().length];
+    private final long[] stageMillis = new long[Stage.values().length];
+    private String outcome;
+
+    // trigger is what started the refresh, e.g. "launch" or "pull"
+    public RefreshTrace(String trigger) {
+        this.trigger = trigger;
+        Arrays.fill(beganAtNanos, -1);
+        Arrays.fill(stageMillis, -1);
+    }
+
+    public synchronized void begin(Stage stage) {
+        if (outcome != null || beganAtNanos[stage.ordinal()] >= 0) {
+            return;
+        }
+        beganAtNanos[stage.ordinal()] = System.nanoTime();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.beginAsyncSection(stage.sectionName(), cookie);
+        }
+    }
+
+    public synchronized void end(Stage stage) {
+        int i = stage.ordinal();
+        if (beganAtNanos[i] < 0 || stageMillis[i] >= 0) {
+            return;
+        }
+        stageMillis[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - beganAtNanos[i]);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(stage.sectionName(), cookie);
+        }
+    }
+
+    // Moves partMillis of an ended stage into a part timed elsewhere, e.g. parsing inside the call
+    public synchronized void splitOff(Stage stage, Stage part, long partMillis) {
+        int i = stage.ordinal();
+        if (stageMillis[i] < 0 || partMillis < 0) {
+            return;
+        }
+        long moved = Math.min(partMillis, stageMillis[i]);
+        stageMillis[i] -= moved;
+        stageMillis[part.ordinal()] = moved;
+    }
+
+    /**
+     * Ends whatever stages are still open and adds this refresh to the
+     * {@link RefreshTraceLog}. Later calls are ignored.
+     */
+    public void finish(String outcome) {
+        finish(outcome, RefreshTraceLog.getInstance());
+    }
+
+    void finish(String outcome, RefreshTraceLog log) {
+        synchronized (this) {
+            if (this.outcome != null) {
+                return;
+            }
+            for (Stage stage : Stage.values()) {
+                end(stage);
+            }
+            this.outcome = outcome;
+        }
+        log.add(this);
+    }
+
+    public String getTrigger() { return trigger; }
+    public long getStartedAtMillis() { return startedAtMillis; }
+    public synchronized String getOutcome() { return outcome; }
+
+    // -1 if the refresh never reached the stage
+    public synchronized long getMillis(Stage stage) {
+        return stageMillis[stage.ordinal()];
+    }
+
+    public synchronized long getTotalMillis() {
+        long total = 0;
+        for (long millis : stageMillis) {
+            total += Math.max(millis, 0);
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder(trigger).append(' ').append(outcome);
+        for (Stage stage : Stage.values()) {
+            sb.append(' ').append(stage.label).append('=').append(stageMillis[stage.ordinal()]);
+        }
+        return sb.append(" total=").append(getTotalMillis()).append("ms").toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.freezer.diagnostics;
+
+import android.util.Log;
+
+import com.example.freezer.BuildConfig;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The last {@link #CAPACITY} finished {@link RefreshTrace}s plus frame counts for the
+ * hourly strip, kept in memory for the debug diagnostics screen. Release builds record
+ * and log nothing.
+ */
+public class RefreshTraceLog {
+    private static final String TAG = "RefreshTrace";
+    static final int CAPACITY = 20;
+    private static final RefreshTraceLog instance = new RefreshTraceLog(BuildConfig.DEBUG);
+
+    private final boolean enabled;
+    // Guarded by this; newest last
+    private final ArrayDeque<RefreshTrace> traces = new ArrayDeque<>();
+    private int stripFrames;
+    private int stripJankyFrames;
+    private long worstStripFrameMillis;
+
+    public static RefreshTraceLog getInstance() {
+        return instance;
+    }
+
+    RefreshTraceLog(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    void add(RefreshTrace trace) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (traces.size() == CAPACITY) {
+                traces.removeFirst();
+            }
+            traces.addLast(trace);
+        }
+        Log.d(TAG, trace.toString());
+    }
+
+    // Newest first
+    public synchronized List<RefreshTrace> getRecent() {
+        List<RefreshTrace> recent = new ArrayList<>(traces.size());
+        for (Iterator<RefreshTrace> it = traces.descendingIterator(); it.hasNext(); ) {
+            recent.add(it.next());
+        }
+        return recent;
+    }
+
+    // A frame drawn while the strip was scrolling; janky if it overran the display's frame budget
+    synchronized void recordStripFrame(long durationNanos, long budgetNanos) {
+        if (!enabled) {
+            return;
+        }
+        stripFrames++;
+        if (durationNanos > budgetNanos) {
+            stripJankyFrames++;
+        }
+        worstStripFrameMillis = Math.max(worstStripFrameMillis, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+    }
+
+    public synchronized int getStripFrameCount() { return stripFrames; }
+    public synchronized int getStripJankyFrameCount() { return stripJankyFrames; }
+    public synchronized long getWorstStripFrameMillis() { return worstStripFrameMillis; }
+
+    public synchronized void clear() {
+        traces.clear();
+        stripFrames = 0;
+        stripJankyFrames = 0;
+        worstStripFrameMillis = 0;
+    }
+
+    // One row per refresh, newest first, with per-stage milliseconds; "-" for stages it never reached
+    public String format() {
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss", Locale.US);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%-8s %-7s %-8s", "time", "trigger", "outcome"));
+        for (RefreshTrace.Stage stage : RefreshTrace.Stage.values()) {
+            sb.append(String.format(Locale.US, " %6s", stage.label));
+        }
+        sb.append(String.format(Locale.US, " %6s%n", "total"));
+
+        for (RefreshTrace trace : getRecent()) {
+            sb.append(String.format(Locale.US, "%-8s %-7s %-8s", time.format(new Date(trace.getStartedAtMillis())),
+                    trace.getTrigger(), trace.getOutcome()));
+            for (RefreshTrace.Stage stage : RefreshTrace.Stage.values()) {
+                long millis = trace.getMillis(stage);
+                sb.append(String.format(Locale.US, " %6s", millis >= 0 ? String.valueOf(millis) : "-"));
+            }
+            sb.append(String.format(Locale.US, " %6d%n", trace.getTotalMillis()));
+        }
+
+        synchronized (this) {
+            sb.append(String.format(Locale.US, "%nHourly strip: %d frames while scrolling, %d janky (%.1f%%), worst %d ms",
+                    stripFrames, stripJankyFrames,
+                    stripFrames > 0 ? 100.0 * stripJankyFrames / stripFrames : 0.0, worstStripFrameMillis));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.freezer.diagnostics;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the window's frames while a RecyclerView is scrolling into {@link RefreshTraceLog},
+ * and which of them overran the display's frame budget. Frame metrics arrive on a
+ * background thread, so nothing here runs on the main thread per frame.
+ */
+public class StripJankTracker extends RecyclerView.OnScrollListener
+        implements Window.OnFrameMetricsAvailableListener {
+    private final Activity activity;
+    private final RecyclerView strip;
+    private final long budgetNanos;
+    private final HandlerThread metricsThread = new HandlerThread("StripJankTracker");
+    private volatile boolean scrolling;
+
+    private StripJankTracker(Activity activity, RecyclerView strip) {
+        this.activity = activity;
+        this.strip = strip;
+        float refreshRate = activity.getWindowManager().getDefaultDisplay().getRefreshRate();
+        this.budgetNanos = (long) (TimeUnit.SECONDS.toNanos(1) / (refreshRate > 0 ? refreshRate : 60));
+    }
+
+    public static StripJankTracker attach(Activity activity, RecyclerView strip) {
+        StripJankTracker tracker = new StripJankTracker(activity, strip);
+        tracker.metricsThread.start();
+        activity.getWindow().addOnFrameMetricsAvailableListener(tracker, new Handler(tracker.metricsThread.getLooper()));
+        strip.addOnScrollListener(tracker);
+        return tracker;
+    }
+
+    public void detach() {
+        strip.removeOnScrollListener(this);
+        activity.getWindow().removeOnFrameMetricsAvailableListener(this);
+        metricsThread.quitSafely();
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        scrolling = newState != RecyclerView.SCROLL_STATE_IDLE;
+    }
+
+    @Override
+    public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+        if (!scrolling) {
+            return;
+        }
+        RefreshTraceLog.getInstance().recordStripFrame(
+                frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION), budgetNanos);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.freezer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Evaluates a set of {@link AlertRule}s in one pass over a {@link ForecastSeries}. Rules
+ * are compiled once into flat condition arrays, so every slot is read once however many
+ * rules there are; adding a rule adds a few comparisons per slot, not another scan.
+ */
+public final class AlertEngine {
+    private final List<AlertRule> rules;
+    private final int[] startHour;
+    private final int[] endHour;
+    // Every rule's conditions back to back; rule r owns [conditionStart[r], conditionStart[r + 1])
+    private final int[] conditionStart;
+    private final AlertRule.Metric[] metric;
+    private final boolean[] above;
+    private final double[] threshold;
+
+    // What a rule matched: the first slot, and the slot furthest past its first condition's threshold
+    public static final class Match {
+        private final AlertRule rule;
+        private final int firstIndex;
+        private final int peakIndex;
+        private final double peakValue;
+
+        Match(AlertRule rule, int firstIndex, int peakIndex, double peakValue) {
+            this.rule = rule;
+            this.firstIndex = firstIndex;
+            this.peakIndex = peakIndex;
+            this.peakValue = peakValue;
+        }
+
+        public AlertRule getRule() { return rule; }
+        public int getFirstIndex() { return firstIndex; }
+        public int getPeakIndex() { return peakIndex; }
+        public double getPeakValue() { return peakValue; }
+    }
+
+    private AlertEngine(List<AlertRule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        int ruleCount = rules.size();
+        startHour = new int[ruleCount];
+        endHour = new int[ruleCount];
+        conditionStart = new int[ruleCount + 1];
+
+        int conditionCount = 0;
+        for (AlertRule rule : rules) {
+            conditionCount += rule.getConditions().size();
+        }
+        metric = new AlertRule.Metric[conditionCount];
+        above = new boolean[conditionCount];
+        threshold = new double[conditionCount];
+
+        int c = 0;
+        for (int r = 0; r < ruleCount; r++) {
+            AlertRule rule = rules.get(r);
+            startHour[r] = rule.getStartHour();
+            endHour[r] = rule.getEndHour();
+            conditionStart[r] = c;
+            for (AlertRule.Condition condition : rule.getConditions()) {
+                metric[c] = condition.getMetric();
+                above[c] = condition.getComparison() == AlertRule.Comparison.ABOVE;
+                threshold[c] = condition.getThreshold();
+                c++;
+            }
+        }
+        conditionStart[ruleCount] = c;
+    }
+
+    public static AlertEngine compile(List<AlertRule> rules) {
+        return new AlertEngine(rules);
+    }
+
+    public List<AlertRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Matches for every rule that fires within the current or next occurrence of its
+     * window, in rule order. Windows are in the forecast city's local time.
+     */
+    public List<Match> evaluate(ForecastSeries series, long nowSeconds, int utcOffsetSeconds) {
+        int ruleCount = rules.size();
+        long[] windowStart = new long[ruleCount];
+        long[] windowEnd = new long[ruleCount];
+        int[] first = new int[ruleCount];
+        int[] peak = new int[ruleCount];
+        Arrays.fill(first, -1);
+        Arrays.fill(peak, -1);
+
+        long scanStart = Long.MAX_VALUE;
+        long scanEnd = Long.MIN_VALUE;
+        for (int r = 0; r < ruleCount; r++) {
+            windowStart[r] = ForecastWindows.windowStart(nowSeconds, utcOffsetSeconds, startHour[r], endHour[r]);
+            windowEnd[r] = ForecastWindows.windowEnd(windowStart[r], startHour[r], endHour[r]);
+            scanStart = Math.min(scanStart, windowStart[r]);
+            scanEnd = Math.max(scanEnd, windowEnd[r]);
+        }
+
+        for (int i = series.indexAtOrAfter(scanStart); i < series.size() && series.getDt(i) < scanEnd; i++) {
+            long dt = series.getDt(i);
+            for (int r = 0; r < ruleCount; r++) {
+                if (dt < windowStart[r] || dt >= windowEnd[r]) {
+                    continue;
+                }
+                for (int c = conditionStart[r]; c < conditionStart[r + 1]; c++) {
+                    double value = value(series, metric[c], i);
+                    if (above[c] ? value > threshold[c] : value <= threshold[c]) {
+                        if (first[r] < 0) {
+                            first[r] = i;
+                        }
+                        if (peak[r] < 0 || isPastPeak(series, r, i, peak[r])) {
+                            peak[r] = i;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (int r = 0; r < ruleCount; r++) {
+            if (first[r] >= 0) {
+                int c = conditionStart[r];
+                matches.add(new Match(rules.get(r), first[r], peak[r], value(series, metric[c], peak[r])));
+            }
+        }
+        return matches;
+    }
+
+    public static double value(ForecastSeries series, AlertRule.Metric metric, int i) {
+        switch (metric) {
+            case TEMP:
+                return series.getTemp(i);
+            case FEELS_LIKE:
+                return series.getFeelsLike(i);
+            case HUMIDITY:
+                return series.getHumidity(i);
+            case WIND_SPEED:
+                return series.getWindSpeed(i);
+            case POP_PERCENT:
+                return series.getPop(i) * 100;
+            case RAIN_MM:
+                return series.getRain3h(i);
+            case SNOW_MM:
+                return series.getSnow3h(i);
+            default:
+                throw new IllegalArgumentException("Unknown metric " + metric);
+        }
+    }
+
+    // Whether slot i is further past rule r's first threshold than the current peak
+    private boolean isPastPeak(ForecastSeries series, int r, int i, int currentPeak) {
+        int c = conditionStart[r];
+        double value = value(series, metric[c], i);
+        double peakValue = value(series, metric[c], currentPeak);
+        return above[c] ? value > peakValue : value < peakValue;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.freezer.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One alert: fires when any of its conditions holds for a forecast slot inside its
+ * local-time window, and is evaluated by the daily {@link Check} it belongs to. The
+ * freeze and umbrella alerts are built-in rules; users can add their own. Forecasts are
+ * fetched in imperial units, so temperatures are °F and wind speeds mph.
+ */
+public final class AlertRule {
+    public static final String FREEZE_ID = "freeze";
+    public static final String UMBRELLA_ID = "umbrella";
+
+    // The daily checks every rule runs in, at a local wall-clock hour
+    public enum Check {
+        EVENING(18),
+        MORNING(7);
+
+        private final int hourOfDay;
+
+        Check(int hourOfDay) {
+            this.hourOfDay = hourOfDay;
+        }
+
+        public int getHourOfDay() { return hourOfDay; }
+    }
+
+    public enum Metric {
+        TEMP,
+        FEELS_LIKE,
+        HUMIDITY,
+        WIND_SPEED,
+        POP_PERCENT,
+        RAIN_MM,
+        SNOW_MM
+    }
+
+    public enum Comparison {
+        AT_MOST,
+        ABOVE
+    }
+
+    public static final class Condition {
+        private final Metric metric;
+        private final Comparison comparison;
+        private final double threshold;
+
+        public Condition(Metric metric, Comparison comparison, double threshold) {
+            this.metric = metric;
+            this.comparison = comparison;
+            this.threshold = threshold;
+        }
+
+        public Metric getMetric() { return metric; }
+        public Comparison getComparison() { return comparison; }
+        public double getThreshold() { return threshold; }
+    }
+
+    private final String id;
+    private final String name;
+    private final Check check;
+    private final int startHour;
+    private final int endHour;
+    private final boolean enabled;
+    private final List<Condition> conditions;
+
+    /**
+     * Window hours follow ForecastWindows: endHour <= startHour runs past midnight. Throws
+     * IllegalArgumentException for hours outside 0-23 or a rule without conditions.
+     */
+    public AlertRule(String id, String name, Check check, int startHour, int endHour, boolean enabled,
+                     List<Condition> conditions) {
+        if (id == null || check == null) {
+            throw new IllegalArgumentException("Rule needs an id and a check");
+        }
+        if (!isHour(startHour) || !isHour(endHour)) {
+            throw new IllegalArgumentException("Window hours must be 0-23, got " + startHour + "-" + endHour);
+        }
+        if (conditions.isEmpty()) {
+            throw new IllegalArgumentException("Rule needs at least one condition");
+        }
+        this.id = id;
+        this.name = name;
+        this.check = check;
+        this.startHour = startHour;
+        this.endHour = endHour;
+        this.enabled = enabled;
+        this.conditions = Collections.unmodifiableList(conditions);
+    }
+
+    // Overnight low at or below freezing
+    public static AlertRule freeze(boolean enabled) {
+        return new AlertRule(FREEZE_ID, "Freeze", Check.EVENING, 22, 8, enabled,
+                Collections.singletonList(new Condition(Metric.TEMP, Comparison.AT_MOST, 32.0)));
+    }
+
+    // Measurable rain or a real chance of it during the 7-10 AM commute
+    public static AlertRule umbrella(boolean enabled) {
+        return new AlertRule(UMBRELLA_ID, "Umbrella", Check.MORNING, 7, 10, enabled, Arrays.asList(
+                new Condition(Metric.RAIN_MM, Comparison.ABOVE, 0.1),
+                new Condition(Metric.POP_PERCENT, Comparison.ABOVE, 30)));
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public Check getCheck() { return check; }
+    public int getStartHour() { return startHour; }
+    public int getEndHour() { return endHour; }
+    public boolean isEnabled() { return enabled; }
+    public List<Condition> getConditions() { return conditions; }
+
+    public boolean isBuiltIn() {
+        return FREEZE_ID.equals(id) || UMBRELLA_ID.equals(id);
+    }
+
+    private static boolean isHour(int hour) {
+        return hour >= 0 && hour <= 23;
+    }
+
+    public AlertRule withEnabled(boolean enabled) {
+        return new AlertRule(id, name, check, startHour, endHour, enabled, conditions);
+    }
+}
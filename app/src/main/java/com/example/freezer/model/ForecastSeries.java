@@ -0,0 +1,178 @@
+package com.example.freezer.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column-oriented forecast: one primitive array per field instead of a small object graph
+ * per 3-hour slot. Conditions are interned into a table shared by every slot.
+ * Accessors take a slot index and never allocate.
+ */
+public final class ForecastSeries {
+    public static final ForecastSeries EMPTY = new Builder(0).build();
+
+    private static final short NO_CONDITION = -1;
+
+    private final int size;
+    private final long[] dt;
+    private final float[] temp;
+    private final float[] feelsLike;
+    private final byte[] humidity;
+    private final float[] pop;
+    private final float[] rain3h;
+    private final float[] snow3h;
+    private final float[] windSpeed;
+    private final short[] condition;
+
+    private final String[] conditionMain;
+    private final String[] conditionDescription;
+    private final String[] conditionIcon;
+
+    private ForecastSeries(Builder builder) {
+        size = builder.size;
+        dt = Arrays.copyOf(builder.dt, size);
+        temp = Arrays.copyOf(builder.temp, size);
+        feelsLike = Arrays.copyOf(builder.feelsLike, size);
+        humidity = Arrays.copyOf(builder.humidity, size);
+        pop = Arrays.copyOf(builder.pop, size);
+        rain3h = Arrays.copyOf(builder.rain3h, size);
+        snow3h = Arrays.copyOf(builder.snow3h, size);
+        windSpeed = Arrays.copyOf(builder.windSpeed, size);
+        condition = Arrays.copyOf(builder.condition, size);
+
+        int conditions = builder.conditionCount;
+        conditionMain = Arrays.copyOf(builder.conditionMain, conditions);
+        conditionDescription = Arrays.copyOf(builder.conditionDescription, conditions);
+        conditionIcon = Arrays.copyOf(builder.conditionIcon, conditions);
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public long getDt(int i) { return dt[i]; }
+    public float getTemp(int i) { return temp[i]; }
+    public float getFeelsLike(int i) { return feelsLike[i]; }
+    public int getHumidity(int i) { return humidity[i]; }
+    public float getPop(int i) { return pop[i]; }
+    public float getRain3h(int i) { return rain3h[i]; }
+    public float getSnow3h(int i) { return snow3h[i]; }
+    public float getWindSpeed(int i) { return windSpeed[i]; }
+
+    public boolean hasCondition(int i) { return condition[i] != NO_CONDITION; }
+    // Slots with the same weather share one code, so codes can be compared directly
+    public int getConditionCode(int i) { return condition[i]; }
+    public String getConditionMain(int i) { return hasCondition(i) ? conditionMain[condition[i]] : null; }
+    public String getConditionDescription(int i) { return hasCondition(i) ? conditionDescription[condition[i]] : null; }
+    public String getConditionIcon(int i) { return hasCondition(i) ? conditionIcon[condition[i]] : null; }
+
+    /**
+     * Index of the first slot at or after epochSeconds, or size() if there is none.
+     * Slots are sorted by dt, so a window [start, end) is scanned from here until dt >= end.
+     */
+    public int indexAtOrAfter(long epochSeconds) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dt[mid] < epochSeconds) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public static final class Builder {
+        private int size;
+        private long[] dt;
+        private float[] temp;
+        private float[] feelsLike;
+        private byte[] humidity;
+        private float[] pop;
+        private float[] rain3h;
+        private float[] snow3h;
+        private float[] windSpeed;
+        private short[] condition;
+
+        private int conditionCount;
+        private String[] conditionMain = new String[8];
+        private String[] conditionDescription = new String[8];
+        private String[] conditionIcon = new String[8];
+        private final Map<String, Short> conditionCodes = new HashMap<>();
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            dt = new long[capacity];
+            temp = new float[capacity];
+            feelsLike = new float[capacity];
+            humidity = new byte[capacity];
+            pop = new float[capacity];
+            rain3h = new float[capacity];
+            snow3h = new float[capacity];
+            windSpeed = new float[capacity];
+            condition = new short[capacity];
+        }
+
+        public Builder add(long dt, float temp, float feelsLike, int humidity, float pop,
+                           float rain3h, float snow3h, float windSpeed,
+                           String conditionMain, String conditionDescription, String conditionIcon) {
+            ensureCapacity(size + 1);
+            this.dt[size] = dt;
+            this.temp[size] = temp;
+            this.feelsLike[size] = feelsLike;
+            this.humidity[size] = (byte) humidity;
+            this.pop[size] = pop;
+            this.rain3h[size] = rain3h;
+            this.snow3h[size] = snow3h;
+            this.windSpeed[size] = windSpeed;
+            this.condition[size] = intern(conditionMain, conditionDescription, conditionIcon);
+            size++;
+            return this;
+        }
+
+        public ForecastSeries build() {
+            return new ForecastSeries(this);
+        }
+
+        private short intern(String main, String description, String icon) {
+            if (main == null && description == null && icon == null) {
+                return NO_CONDITION;
+            }
+            String key = main + '\u0000' + description + '\u0000' + icon;
+            Short code = conditionCodes.get(key);
+            if (code != null) {
+                return code;
+            }
+            if (conditionCount == conditionMain.length) {
+                int capacity = conditionCount * 2;
+                conditionMain = Arrays.copyOf(conditionMain, capacity);
+                conditionDescription = Arrays.copyOf(conditionDescription, capacity);
+                conditionIcon = Arrays.copyOf(conditionIcon, capacity);
+            }
+            short newCode = (short) conditionCount++;
+            conditionMain[newCode] = main;
+            conditionDescription[newCode] = description;
+            conditionIcon[newCode] = icon;
+            conditionCodes.put(key, newCode);
+            return newCode;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed <= dt.length) {
+                return;
+            }
+            int capacity = Math.max(needed, dt.length * 2);
+            dt = Arrays.copyOf(dt, capacity);
+            temp = Arrays.copyOf(temp, capacity);
+            feelsLike = Arrays.copyOf(feelsLike, capacity);
+            humidity = Arrays.copyOf(humidity, capacity);
+            pop = Arrays.copyOf(pop, capacity);
+            rain3h = Arrays.copyOf(rain3h, capacity);
+            snow3h = Arrays.copyOf(snow3h, capacity);
+            windSpeed = Arrays.copyOf(windSpeed, capacity);
+            condition = Arrays.copyOf(condition, capacity);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.freezer.model;
+
+/**
+ * Immutable result of one background refresh: the parsed forecast plus where and when
+ * it was fetched. Alert checks evaluate against this instead of calling the network.
+ */
+public final class ForecastSnapshot {
+    private final double lat;
+    private final double lon;
+    private final long fetchedAtMillis;
+    private final ForecastResponse forecast;
+
+    public ForecastSnapshot(double lat, double lon, long fetchedAtMillis, ForecastResponse forecast) {
+        this.lat = lat;
+        this.lon = lon;
+        this.fetchedAtMillis = fetchedAtMillis;
+        this.forecast = forecast;
+    }
+
+    public double getLat() { return lat; }
+    public double getLon() { return lon; }
+    public long getFetchedAtMillis() { return fetchedAtMillis; }
+    public ForecastResponse getForecast() { return forecast; }
+
+    public long getAgeMillis(long nowMillis) {
+        return nowMillis - fetchedAtMillis;
+    }
+}
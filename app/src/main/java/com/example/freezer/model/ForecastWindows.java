@@ -0,0 +1,49 @@
+package com.example.freezer.model;
+
+/**
+ * Local-time window math over a {@link ForecastSeries}, done in the forecast city's UTC
+ * offset rather than the device timezone. Works on epoch seconds and never allocates.
+ */
+public final class ForecastWindows {
+    public static final long SECONDS_PER_HOUR = 3600;
+    public static final long SECONDS_PER_DAY = 24 * SECONDS_PER_HOUR;
+
+    private ForecastWindows() {
+    }
+
+    // Epoch seconds of local midnight on the day containing epochSeconds
+    public static long localMidnight(long epochSeconds, int utcOffsetSeconds) {
+        return Math.floorDiv(epochSeconds + utcOffsetSeconds, SECONDS_PER_DAY) * SECONDS_PER_DAY
+                - utcOffsetSeconds;
+    }
+
+    public static int localHour(long epochSeconds, int utcOffsetSeconds) {
+        return (int) (Math.floorMod(epochSeconds + utcOffsetSeconds, SECONDS_PER_DAY) / SECONDS_PER_HOUR);
+    }
+
+    /**
+     * Start of the current or next occurrence of the local window [startHour, endHour),
+     * i.e. the earliest occurrence that has not ended yet. Windows with endHour <= startHour
+     * run past midnight (22 to 8 is "10 PM tonight to 8 AM tomorrow").
+     */
+    public static long windowStart(long nowSeconds, int utcOffsetSeconds, int startHour, int endHour) {
+        long midnight = localMidnight(nowSeconds, utcOffsetSeconds);
+        long duration = windowDuration(startHour, endHour);
+        for (int day = -1; day <= 1; day++) {
+            long start = midnight + day * SECONDS_PER_DAY + startHour * SECONDS_PER_HOUR;
+            if (start + duration > nowSeconds) {
+                return start;
+            }
+        }
+        return midnight + SECONDS_PER_DAY + startHour * SECONDS_PER_HOUR;
+    }
+
+    public static long windowEnd(long windowStart, int startHour, int endHour) {
+        return windowStart + windowDuration(startHour, endHour);
+    }
+
+    private static long windowDuration(int startHour, int endHour) {
+        int hours = Math.floorMod(endHour - startHour, 24);
+        return (hours == 0 ? 24 : hours) * SECONDS_PER_HOUR;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.freezer.model;
+
+/**
+ * A place the alert checks watch. The device's own position is the location with
+ * {@link #CURRENT_ID}; everything else is a site the user saved, like a cabin.
+ */
+public final class SavedLocation {
+    public static final String CURRENT_ID = "current";
+
+    private final String id;
+    private final String name;
+    private final double lat;
+    private final double lon;
+
+    public SavedLocation(String id, String name, double lat, double lon) {
+        this.id = id;
+        this.name = name;
+        this.lat = lat;
+        this.lon = lon;
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public double getLat() { return lat; }
+    public double getLon() { return lon; }
+
+    public boolean isCurrent() {
+        return CURRENT_ID.equals(id);
+    }
+
+    // Name for alerts: the forecast's city for the current location, the saved name otherwise
+    public String placeName(ForecastResponse forecast) {
+        return isCurrent() ? forecast.getCity().getName() : name;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.freezer.model;
+
+/**
+ * Immutable snapshot of the user's settings. Change it through
+ * {@code SettingsStore.update}, which hands out a {@link Builder} seeded with these values.
+ */
+public final class Settings {
+    // Well inside the area one city forecast covers
+    public static final float DEFAULT_PREFETCH_MAX_DISTANCE_METERS = 5000;
+    public static final Settings DEFAULTS = new Builder().build();
+
+    private final boolean freezeAlertsEnabled;
+    private final boolean umbrellaAlertsEnabled;
+    private final float lastLat;
+    private final float lastLon;
+    private final String savedLocationsJson;
+    private final String alertRulesJson;
+    private final float prefetchMaxDistanceMeters;
+
+    private Settings(Builder builder) {
+        freezeAlertsEnabled = builder.freezeAlertsEnabled;
+        umbrellaAlertsEnabled = builder.umbrellaAlertsEnabled;
+        lastLat = builder.lastLat;
+        lastLon = builder.lastLon;
+        savedLocationsJson = builder.savedLocationsJson;
+        alertRulesJson = builder.alertRulesJson;
+        prefetchMaxDistanceMeters = builder.prefetchMaxDistanceMeters;
+    }
+
+    public boolean isFreezeAlertsEnabled() { return freezeAlertsEnabled; }
+    public boolean isUmbrellaAlertsEnabled() { return umbrellaAlertsEnabled; }
+    public float getLastLat() { return lastLat; }
+    public float getLastLon() { return lastLon; }
+    // Encoded by SavedLocationStore; null until a location has been saved
+    public String getSavedLocationsJson() { return savedLocationsJson; }
+    // User-added rules, encoded by AlertRuleStore; null until one has been added
+    public String getAlertRulesJson() { return alertRulesJson; }
+    // How far a location fix may be from the prefetched guess and still use its forecast
+    public float getPrefetchMaxDistanceMeters() { return prefetchMaxDistanceMeters; }
+
+    public boolean hasLastLocation() {
+        return lastLat != 0 && lastLon != 0;
+    }
+
+    public Builder buildUpon() {
+        return new Builder()
+                .setFreezeAlertsEnabled(freezeAlertsEnabled)
+                .setUmbrellaAlertsEnabled(umbrellaAlertsEnabled)
+                .setLastLocation(lastLat, lastLon)
+                .setSavedLocationsJson(savedLocationsJson)
+                .setAlertRulesJson(alertRulesJson)
+                .setPrefetchMaxDistanceMeters(prefetchMaxDistanceMeters);
+    }
+
+    public static final class Builder {
+        private boolean freezeAlertsEnabled;
+        private boolean umbrellaAlertsEnabled;
+        private float lastLat;
+        private float lastLon;
+        private String savedLocationsJson;
+        private String alertRulesJson;
+        private float prefetchMaxDistanceMeters = DEFAULT_PREFETCH_MAX_DISTANCE_METERS;
+
+        public Builder setFreezeAlertsEnabled(boolean enabled) {
+            freezeAlertsEnabled = enabled;
+            return this;
+        }
+
+        public Builder setUmbrellaAlertsEnabled(boolean enabled) {
+            umbrellaAlertsEnabled = enabled;
+            return this;
+        }
+
+        public Builder setLastLocation(float lat, float lon) {
+            lastLat = lat;
+            lastLon = lon;
+            return this;
+        }
+
+        public Builder setSavedLocationsJson(String json) {
+            savedLocationsJson = json;
+            return this;
+        }
+
+        public Builder setAlertRulesJson(String json) {
+            alertRulesJson = json;
+            return this;
+        }
+
+        public Builder setPrefetchMaxDistanceMeters(float meters) {
+            prefetchMaxDistanceMeters = meters;
+            return this;
+        }
+
+        public Settings build() {
+            return new Settings(this);
+        }
+    }
+}
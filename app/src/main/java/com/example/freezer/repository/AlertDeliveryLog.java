@@ -0,0 +1,78 @@
+package com.example.freezer.repository;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduled-versus-actual times for every alert check, so we can see how late alerts
+ * arrive. Each run records when its alarm was due, when it fired and when the check
+ * finished posting notifications. All methods block; call them off the main thread.
+ */
+public class AlertDeliveryLog {
+    private static final String TAG = "AlertDeliveryLog";
+    static final long RETENTION_MILLIS = TimeUnit.DAYS.toMillis(90);
+    // Recent runs summarised after each record
+    private static final int SUMMARY_RUNS = 30;
+    private static AlertDeliveryLog instance;
+
+    private final ForecastDatabase database;
+
+    public static synchronized AlertDeliveryLog getInstance(Context context) {
+        if (instance == null) {
+            instance = new AlertDeliveryLog(ForecastDatabase.getInstance(context));
+        }
+        return instance;
+    }
+
+    AlertDeliveryLog(ForecastDatabase database) {
+        this.database = database;
+    }
+
+    public void record(String alert, long scheduledAtMillis, long firedAtMillis, long deliveredAtMillis,
+                       int notifications, int failures) {
+        ContentValues values = new ContentValues();
+        values.put("alert", alert);
+        values.put("scheduled_at", scheduledAtMillis);
+        values.put("fired_at", firedAtMillis);
+        values.put("delivered_at", deliveredAtMillis);
+        values.put("notifications", notifications);
+        values.put("failures", failures);
+        database.getWritableDatabase().insert(ForecastDatabase.TABLE_ALERT_DELIVERIES, null, values);
+        database.getWritableDatabase().delete(ForecastDatabase.TABLE_ALERT_DELIVERIES, "scheduled_at < ?",
+                new String[]{Long.toString(deliveredAtMillis - RETENTION_MILLIS)});
+
+        Log.d(TAG, alert + " delivered " + (deliveredAtMillis - scheduledAtMillis) + " ms late (alarm "
+                + (firedAtMillis - scheduledAtMillis) + " ms, check " + (deliveredAtMillis - firedAtMillis)
+                + " ms); last " + SUMMARY_RUNS + ": " + summarize(alert, SUMMARY_RUNS));
+    }
+
+    // Median, p95 and worst delivery lateness over the alert's last runs
+    public String summarize(String alert, int runs) {
+        long[] latencies;
+        try (Cursor cursor = database.getReadableDatabase().rawQuery("SELECT delivered_at - scheduled_at FROM "
+                        + ForecastDatabase.TABLE_ALERT_DELIVERIES + " WHERE alert = ? ORDER BY scheduled_at DESC LIMIT ?",
+                new String[]{alert, Integer.toString(runs)})) {
+            latencies = new long[cursor.getCount()];
+            for (int i = 0; cursor.moveToNext(); i++) {
+                latencies[i] = cursor.getLong(0);
+            }
+        }
+        if (latencies.length == 0) {
+            return "no runs";
+        }
+        Arrays.sort(latencies);
+        return latencies.length + " runs, p50 " + percentile(latencies, 0.50) + " ms, p95 "
+                + percentile(latencies, 0.95) + " ms, max " + latencies[latencies.length - 1] + " ms";
+    }
+
+    // Nearest-rank percentile of sorted values
+    static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.freezer.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.model.Settings;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The alert rules checks evaluate: the built-in freeze and umbrella rules, switched by
+ * their settings toggles, plus any the user has added. User rules live in the shared
+ * {@link SettingsStore} snapshot as a JSON list.
+ */
+public class AlertRuleStore {
+    private static final String TAG = "AlertRuleStore";
+    private static AlertRuleStore instance;
+
+    private final SettingsStore settingsStore;
+
+    public static synchronized AlertRuleStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new AlertRuleStore(SettingsStore.getInstance(context));
+        }
+        return instance;
+    }
+
+    AlertRuleStore(SettingsStore settingsStore) {
+        this.settingsStore = settingsStore;
+    }
+
+    // Waits for settings to load, so call off the main thread
+    public List<AlertRule> getAll() {
+        return getAll(settingsStore.get());
+    }
+
+    // Built-in rules first, then user rules in the order they were added
+    public static List<AlertRule> getAll(Settings settings) {
+        List<AlertRule> rules = new ArrayList<>();
+        rules.add(AlertRule.freeze(settings.isFreezeAlertsEnabled()));
+        rules.add(AlertRule.umbrella(settings.isUmbrellaAlertsEnabled()));
+        rules.addAll(decode(settings.getAlertRulesJson()));
+        return rules;
+    }
+
+    // Enabled rules across every check
+    public static List<AlertRule> getEnabled(Settings settings) {
+        List<AlertRule> enabled = new ArrayList<>();
+        for (AlertRule rule : getAll(settings)) {
+            if (rule.isEnabled()) {
+                enabled.add(rule);
+            }
+        }
+        return enabled;
+    }
+
+    public static List<AlertRule> getEnabled(Settings settings, AlertRule.Check check) {
+        List<AlertRule> enabled = new ArrayList<>();
+        for (AlertRule rule : getAll(settings)) {
+            if (rule.isEnabled() && rule.getCheck() == check) {
+                enabled.add(rule);
+            }
+        }
+        return enabled;
+    }
+
+    public static boolean hasEnabled(Settings settings) {
+        for (AlertRule rule : getAll(settings)) {
+            if (rule.isEnabled()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Throws IllegalArgumentException for an invalid rule, before anything is stored
+    public AlertRule add(String name, AlertRule.Check check, int startHour, int endHour,
+                         List<AlertRule.Condition> conditions) {
+        AlertRule rule = new AlertRule(UUID.randomUUID().toString(), name, check, startHour, endHour,
+                true, conditions);
+        settingsStore.update(settings -> {
+            List<AlertRule> rules = new ArrayList<>(decode(settings.build().getAlertRulesJson()));
+            rules.add(rule);
+            settings.setAlertRulesJson(encode(rules));
+        });
+        return rule;
+    }
+
+    public void setEnabled(String id, boolean enabled) {
+        if (AlertRule.FREEZE_ID.equals(id)) {
+            settingsStore.update(settings -> settings.setFreezeAlertsEnabled(enabled));
+            return;
+        }
+        if (AlertRule.UMBRELLA_ID.equals(id)) {
+            settingsStore.update(settings -> settings.setUmbrellaAlertsEnabled(enabled));
+            return;
+        }
+        settingsStore.update(settings -> {
+            List<AlertRule> rules = new ArrayList<>(decode(settings.build().getAlertRulesJson()));
+            for (int i = 0; i < rules.size(); i++) {
+                if (rules.get(i).getId().equals(id)) {
+                    rules.set(i, rules.get(i).withEnabled(enabled));
+                    settings.setAlertRulesJson(encode(rules));
+                    return;
+                }
+            }
+        });
+    }
+
+    // Built-in rules can only be switched off
+    public void remove(String id) {
+        settingsStore.update(settings -> {
+            List<AlertRule> rules = new ArrayList<>(decode(settings.build().getAlertRulesJson()));
+            for (int i = 0; i < rules.size(); i++) {
+                if (rules.get(i).getId().equals(id)) {
+                    rules.remove(i);
+                    settings.setAlertRulesJson(encode(rules));
+                    return;
+                }
+            }
+        });
+    }
+
+    private static List<AlertRule> decode(String json) {
+        if (json == null) {
+            return Collections.emptyList();
+        }
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            return readRules(reader);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Failed to read alert rules", e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static String encode(List<AlertRule> rules) {
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writeRules(writer, rules);
+        } catch (IOException e) {
+            // StringWriter doesn't throw
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    // A rule that doesn't parse, e.g. one naming a metric this version lacks, is skipped alone
+    static List<AlertRule> readRules(JsonReader reader) throws IOException {
+        List<AlertRule> rules = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String id = null;
+            String name = "";
+            String check = null;
+            int startHour = 0;
+            int endHour = 0;
+            boolean enabled = true;
+            List<StoredCondition> conditions = new ArrayList<>();
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id":
+                        id = reader.nextString();
+                        break;
+                    case "name":
+                        name = reader.nextString();
+                        break;
+                    case "check":
+                        check = reader.nextString();
+                        break;
+                    case "start_hour":
+                        startHour = reader.nextInt();
+                        break;
+                    case "end_hour":
+                        endHour = reader.nextInt();
+                        break;
+                    case "enabled":
+                        enabled = reader.nextBoolean();
+                        break;
+                    case "conditions":
+                        readConditions(reader, conditions);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            try {
+                rules.add(new AlertRule(id, name, check != null ? AlertRule.Check.valueOf(check) : null,
+                        startHour, endHour, enabled, toConditions(conditions)));
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "Skipping alert rule " + id + ": " + e.getMessage());
+            }
+        }
+        reader.endArray();
+        return rules;
+    }
+
+    // A condition as stored, converted once the whole rule has been read
+    private static final class StoredCondition {
+        String metric;
+        String comparison;
+        double threshold;
+
+        AlertRule.Condition toCondition() {
+            if (metric == null || comparison == null) {
+                throw new IllegalArgumentException("Condition needs a metric and a comparison");
+            }
+            return new AlertRule.Condition(AlertRule.Metric.valueOf(metric),
+                    AlertRule.Comparison.valueOf(comparison), threshold);
+        }
+    }
+
+    private static void readConditions(JsonReader reader, List<StoredCondition> conditions) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            StoredCondition condition = new StoredCondition();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "metric":
+                        condition.metric = reader.nextString();
+                        break;
+                    case "comparison":
+                        condition.comparison = reader.nextString();
+                        break;
+                    case "threshold":
+                        condition.threshold = reader.nextDouble();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            conditions.add(condition);
+        }
+        reader.endArray();
+    }
+
+    private static List<AlertRule.Condition> toConditions(List<StoredCondition> stored) {
+        List<AlertRule.Condition> conditions = new ArrayList<>();
+        for (StoredCondition condition : stored) {
+            conditions.add(condition.toCondition());
+        }
+        return conditions;
+    }
+
+    static void writeRules(JsonWriter writer, List<AlertRule> rules) throws IOException {
+        writer.beginArray();
+        for (AlertRule rule : rules) {
+            writer.beginObject();
+            writer.name("id").value(rule.getId());
+            writer.name("name").value(rule.getName());
+            writer.name("check").value(rule.getCheck().name());
+            writer.name("start_hour").value(rule.getStartHour());
+            writer.name("end_hour").value(rule.getEndHour());
+            writer.name("enabled").value(rule.isEnabled());
+            writer.name("conditions").beginArray();
+            for (AlertRule.Condition condition : rule.getConditions()) {
+                writer.beginObject();
+                writer.name("metric").value(condition.getMetric().name());
+                writer.name("comparison").value(condition.getComparison().name());
+                writer.name("threshold").value(condition.getThreshold());
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+        }
+        writer.endArray();
+    }
+}
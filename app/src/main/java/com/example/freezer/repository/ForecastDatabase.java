@@ -0,0 +1,93 @@
+package com.example.freezer.repository;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * Forecast history: every 3-hour slot ever fetched, keyed by (location_id, dt), plus the
+ * latest fetch per location. Slots are clustered on their primary key, so a location's
+ * time range is one index seek however much history has built up. Also holds the alert
+ * delivery log.
+ */
+class ForecastDatabase extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "forecast.db";
+    private static final int DATABASE_VERSION = 3;
+
+    static final String TABLE_SLOTS = "forecast_slots";
+    static final String TABLE_FETCHES = "forecast_fetches";
+    static final String TABLE_ALERT_DELIVERIES = "alert_deliveries";
+
+    private static ForecastDatabase instance;
+
+    // One helper per process, so every store shares a connection
+    static synchronized ForecastDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = new ForecastDatabase(context);
+        }
+        return instance;
+    }
+
+    private ForecastDatabase(Context context) {
+        this(context, DATABASE_NAME);
+    }
+
+    // A null name keeps the database in memory, for tests
+    ForecastDatabase(Context context, String name) {
+        super(context.getApplicationContext(), name, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_SLOTS + " ("
+                + "location_id TEXT NOT NULL, "
+                + "dt INTEGER NOT NULL, "
+                + "temp REAL NOT NULL, "
+                + "feels_like REAL NOT NULL, "
+                + "humidity INTEGER NOT NULL, "
+                + "pop REAL NOT NULL, "
+                + "rain_3h REAL NOT NULL, "
+                + "snow_3h REAL NOT NULL, "
+                + "wind_speed REAL NOT NULL, "
+                + "condition_main TEXT, "
+                + "condition_description TEXT, "
+                + "condition_icon TEXT, "
+                + "updated_at INTEGER NOT NULL, "
+                + "PRIMARY KEY (location_id, dt)) WITHOUT ROWID");
+        // Retention pruning deletes by age across every location
+        db.execSQL("CREATE INDEX forecast_slots_dt ON " + TABLE_SLOTS + " (dt)");
+
+        db.execSQL("CREATE TABLE " + TABLE_FETCHES + " ("
+                + "location_id TEXT PRIMARY KEY, "
+                + "lat REAL NOT NULL, "
+                + "lon REAL NOT NULL, "
+                + "fetched_at INTEGER NOT NULL, "
+                + "first_dt INTEGER NOT NULL, "
+                + "city_name TEXT, "
+                + "country TEXT, "
+                + "timezone INTEGER)");
+
+        createAlertDeliveries(db);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            createAlertDeliveries(db);
+        }
+        if (oldVersion < 3) {
+            db.execSQL("ALTER TABLE " + TABLE_SLOTS + " ADD COLUMN wind_speed REAL NOT NULL DEFAULT 0");
+        }
+    }
+
+    private static void createAlertDeliveries(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_ALERT_DELIVERIES + " ("
+                + "alert TEXT NOT NULL, "
+                + "scheduled_at INTEGER NOT NULL, "
+                + "fired_at INTEGER NOT NULL, "
+                + "delivered_at INTEGER NOT NULL, "
+                + "notifications INTEGER NOT NULL, "
+                + "failures INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX alert_deliveries_alert ON " + TABLE_ALERT_DELIVERIES + " (alert, scheduled_at)");
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.freezer.repository;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.example.freezer.model.ForecastSnapshot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On-device forecast history backed by {@link ForecastDatabase}. New fetches are merged
+ * slot by slot, so only new or changed slots are written, and slots older than
+ * {@link #RETENTION_MILLIS} are pruned. All methods block; call them off the main thread.
+ */
+public class ForecastHistoryStore {
+    private static final String TAG = "ForecastHistory";
+    static final long RETENTION_MILLIS = TimeUnit.DAYS.toMillis(730);
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static ForecastHistoryStore instance;
+
+    // ?1 and ?2 are the key, ?3 to ?12 the slot values, ?13 the write time
+    private static final String UPDATE_CHANGED_SLOT = "UPDATE " + ForecastDatabase.TABLE_SLOTS
+            + " SET temp = ?3, feels_like = ?4, humidity = ?5, pop = ?6, rain_3h = ?7, snow_3h = ?8,"
+            + " wind_speed = ?9, condition_main = ?10, condition_description = ?11, condition_icon = ?12,"
+            + " updated_at = ?13"
+            + " WHERE location_id = ?1 AND dt = ?2 AND (temp IS NOT ?3 OR feels_like IS NOT ?4"
+            + " OR humidity IS NOT ?5 OR pop IS NOT ?6 OR rain_3h IS NOT ?7 OR snow_3h IS NOT ?8"
+            + " OR wind_speed IS NOT ?9 OR condition_main IS NOT ?10 OR condition_description IS NOT ?11"
+            + " OR condition_icon IS NOT ?12)";
+    private static final String INSERT_NEW_SLOT = "INSERT OR IGNORE INTO " + ForecastDatabase.TABLE_SLOTS
+            + " (location_id, dt, temp, feels_like, humidity, pop, rain_3h, snow_3h, wind_speed,"
+            + " condition_main, condition_description, condition_icon, updated_at)"
+            + " VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8, ?9, ?10, ?11, ?12, ?13)";
+    private static final String SELECT_RANGE = "SELECT dt, temp, feels_like, humidity, pop, rain_3h, snow_3h,"
+            + " wind_speed, condition_main, condition_description, condition_icon FROM " + ForecastDatabase.TABLE_SLOTS
+            + " WHERE location_id = ? AND dt >= ? AND dt < ? ORDER BY dt";
+
+    private final ForecastDatabase database;
+    private long lastPrunedAtMillis;
+
+    public static synchronized ForecastHistoryStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new ForecastHistoryStore(ForecastDatabase.getInstance(context));
+        }
+        return instance;
+    }
+
+    ForecastHistoryStore(ForecastDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Upserts the snapshot's slots for locationId and records it as the latest fetch.
+     * Unchanged slots are left alone; slots the new fetch no longer covers stay as history.
+     */
+    public synchronized void merge(String locationId, ForecastSnapshot snapshot) {
+        ForecastSeries series = snapshot.getForecast().getSeries();
+        SQLiteDatabase db = database.getWritableDatabase();
+        int inserted = 0;
+        int updated = 0;
+
+        db.beginTransaction();
+        try {
+            SQLiteStatement update = db.compileStatement(UPDATE_CHANGED_SLOT);
+            SQLiteStatement insert = db.compileStatement(INSERT_NEW_SLOT);
+            for (int i = 0; i < series.size(); i++) {
+                bindSlot(update, locationId, series, i, snapshot.getFetchedAtMillis());
+                if (update.executeUpdateDelete() > 0) {
+                    updated++;
+                    continue;
+                }
+                bindSlot(insert, locationId, series, i, snapshot.getFetchedAtMillis());
+                if (insert.executeInsert() != -1) {
+                    inserted++;
+                }
+            }
+            update.close();
+            insert.close();
+
+            db.insertWithOnConflict(ForecastDatabase.TABLE_FETCHES, null,
+                    fetchValues(locationId, snapshot), SQLiteDatabase.CONFLICT_REPLACE);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        Log.d(TAG, "Merged " + locationId + ": " + inserted + " new, " + updated + " changed, "
+                + (series.size() - inserted - updated) + " unchanged");
+
+        if (snapshot.getFetchedAtMillis() - lastPrunedAtMillis > PRUNE_INTERVAL_MILLIS) {
+            prune(snapshot.getFetchedAtMillis() - RETENTION_MILLIS);
+            lastPrunedAtMillis = snapshot.getFetchedAtMillis();
+        }
+    }
+
+    // Latest fetch for locationId, rebuilt from its stored slots, or null if there is none
+    public ForecastSnapshot loadSnapshot(String locationId) {
+        SQLiteDatabase db = database.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery("SELECT lat, lon, fetched_at, first_dt, city_name, country, timezone"
+                + " FROM " + ForecastDatabase.TABLE_FETCHES + " WHERE location_id = ?", new String[]{locationId})) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            ForecastResponse.City city = new ForecastResponse.City();
+            city.setName(cursor.getString(4));
+            city.setCountry(cursor.getString(5));
+            city.setTimezone(cursor.isNull(6) ? null : cursor.getInt(6));
+
+            ForecastResponse forecast = new ForecastResponse();
+            forecast.setCity(city);
+            forecast.setSeries(querySeries(locationId, cursor.getLong(3), Long.MAX_VALUE));
+            return new ForecastSnapshot(cursor.getDouble(0), cursor.getDouble(1), cursor.getLong(2), forecast);
+        }
+    }
+
+    // Stored slots for locationId with fromDt <= dt < toDt, in time order
+    public ForecastSeries querySeries(String locationId, long fromDt, long toDt) {
+        SQLiteDatabase db = database.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery(SELECT_RANGE,
+                new String[]{locationId, Long.toString(fromDt), Long.toString(toDt)})) {
+            ForecastSeries.Builder builder = new ForecastSeries.Builder(cursor.getCount());
+            while (cursor.moveToNext()) {
+                builder.add(cursor.getLong(0), cursor.getFloat(1), cursor.getFloat(2), cursor.getInt(3),
+                        cursor.getFloat(4), cursor.getFloat(5), cursor.getFloat(6), cursor.getFloat(7),
+                        cursor.getString(8), cursor.getString(9), cursor.getString(10));
+            }
+            return builder.build();
+        }
+    }
+
+    // Deletes slots from before cutoffMillis for every location; returns how many went
+    public int prune(long cutoffMillis) {
+        int deleted = database.getWritableDatabase().delete(ForecastDatabase.TABLE_SLOTS, "dt < ?",
+                new String[]{Long.toString(TimeUnit.MILLISECONDS.toSeconds(cutoffMillis))});
+        Log.d(TAG, "Pruned " + deleted + " slots");
+        return deleted;
+    }
+
+    private static void bindSlot(SQLiteStatement statement, String locationId, ForecastSeries series,
+                                 int i, long writtenAtMillis) {
+        statement.bindString(1, locationId);
+        statement.bindLong(2, series.getDt(i));
+        statement.bindDouble(3, series.getTemp(i));
+        statement.bindDouble(4, series.getFeelsLike(i));
+        statement.bindLong(5, series.getHumidity(i));
+        statement.bindDouble(6, series.getPop(i));
+        statement.bindDouble(7, series.getRain3h(i));
+        statement.bindDouble(8, series.getSnow3h(i));
+        statement.bindDouble(9, series.getWindSpeed(i));
+        bindNullable(statement, 10, series.getConditionMain(i));
+        bindNullable(statement, 11, series.getConditionDescription(i));
+        bindNullable(statement, 12, series.getConditionIcon(i));
+        statement.bindLong(13, writtenAtMillis);
+    }
+
+    private static void bindNullable(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+
+    private static ContentValues fetchValues(String locationId, ForecastSnapshot snapshot) {
+        ForecastResponse forecast = snapshot.getForecast();
+        ForecastSeries series = forecast.getSeries();
+        ForecastResponse.City city = forecast.getCity();
+
+        ContentValues values = new ContentValues();
+        values.put("location_id", locationId);
+        values.put("lat", snapshot.getLat());
+        values.put("lon", snapshot.getLon());
+        values.put("fetched_at", snapshot.getFetchedAtMillis());
+        values.put("first_dt", series.isEmpty() ? Long.MAX_VALUE : series.getDt(0));
+        values.put("city_name", city != null ? city.getName() : null);
+        values.put("country", city != null ? city.getCountry() : null);
+        values.put("timezone", city != null ? city.getTimezone() : null);
+        return values;
+    }
+}
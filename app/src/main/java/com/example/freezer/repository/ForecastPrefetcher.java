@@ -0,0 +1,249 @@
+package com.example.freezer.repository;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.Settings;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Starts a forecast fetch for the last known location before the location fix arrives,
+ * so location and network latency overlap instead of adding up. The fix then either
+ * {@link Speculation#claim claims} the result, if it's within {@link #getMaxDistanceMeters()}
+ * of the guess, or cancels it and fetches for itself. The distance follows
+ * {@link Settings#getPrefetchMaxDistanceMeters()}.
+ */
+public class ForecastPrefetcher {
+    private static final String TAG = "ForecastPrefetcher";
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static ForecastPrefetcher instance;
+
+    private final ForecastRepository repository;
+    private final LongSupplier clock;
+    private volatile float maxDistanceMeters = Settings.DEFAULT_PREFETCH_MAX_DISTANCE_METERS;
+
+    // Guarded by this
+    private int speculations;
+    private int hits;
+    private int misses;
+    private int unused;
+    private int savedSamples;
+    private long savedMillis;
+
+    public static synchronized ForecastPrefetcher getInstance(Context context) {
+        if (instance == null) {
+            ForecastPrefetcher prefetcher = new ForecastPrefetcher(ForecastRepository.getInstance(context),
+                    SystemClock::elapsedRealtime);
+            SettingsStore settingsStore = SettingsStore.getInstance(context);
+            SettingsStore.Listener follow = settings ->
+                    prefetcher.setMaxDistanceMeters(settings.getPrefetchMaxDistanceMeters());
+            settingsStore.getAsync(follow);
+            settingsStore.addListener(follow);
+            instance = prefetcher;
+        }
+        return instance;
+    }
+
+    ForecastPrefetcher(ForecastRepository repository, LongSupplier clock) {
+        this.repository = repository;
+        this.clock = clock;
+    }
+
+    // Kept in sync with the settings by getInstance
+    void setMaxDistanceMeters(float maxDistanceMeters) {
+        this.maxDistanceMeters = maxDistanceMeters;
+    }
+
+    public float getMaxDistanceMeters() {
+        return maxDistanceMeters;
+    }
+
+    public Speculation speculate(double lat, double lon, String units) {
+        synchronized (this) {
+            speculations++;
+        }
+        Speculation speculation = new Speculation(lat, lon, clock.getAsLong());
+        ForecastRepository.PendingForecast pending = repository.getForecast(lat, lon, units, speculation);
+        synchronized (speculation) {
+            speculation.pending = pending;
+        }
+        return speculation;
+    }
+
+    /**
+     * One speculative fetch. It is resolved exactly once, by {@link #claim} or
+     * {@link #cancel}; the fetch's own outcome may arrive before or after that.
+     */
+    public final class Speculation implements ForecastRepository.ForecastCallback {
+        private final double lat;
+        private final double lon;
+        private final long startedAt;
+
+        // Guarded by this
+        private ForecastRepository.PendingForecast pending;
+        private boolean resolved;
+        private ForecastResponse forecast;
+        private String error;
+        private long completedAt = -1;
+        private long claimedAt = -1;
+        private ForecastRepository.ForecastCallback claimant;
+
+        private Speculation(double lat, double lon, long startedAt) {
+            this.lat = lat;
+            this.lon = lon;
+            this.startedAt = startedAt;
+        }
+
+        /**
+         * Hands the speculative result to callback if the fix is close enough, now or once
+         * it arrives, and returns true. Otherwise cancels the fetch and returns false, and
+         * the caller should fetch for the fix. A speculation that already failed is never
+         * claimed, so the fix gets a fetch of its own.
+         */
+        public boolean claim(double fixLat, double fixLon, ForecastRepository.ForecastCallback callback) {
+            double distance = distanceMeters(lat, lon, fixLat, fixLon);
+            boolean claimed;
+            ForecastResponse ready;
+            long saved;
+            String failure;
+            ForecastRepository.PendingForecast toCancel;
+            synchronized (this) {
+                if (resolved) {
+                    return false;
+                }
+                resolved = true;
+                claimed = distance <= maxDistanceMeters && (completedAt < 0 || forecast != null);
+                if (claimed) {
+                    claimedAt = clock.getAsLong();
+                    claimant = callback;
+                }
+                ready = forecast;
+                saved = savedMillis(startedAt, completedAt, claimedAt);
+                failure = error;
+                toCancel = pending;
+            }
+
+            if (!claimed) {
+                toCancel.cancel();
+                if (distance > maxDistanceMeters) {
+                    recordMiss(distance);
+                } else {
+                    recordUnused("speculative fetch failed: " + failure);
+                }
+                return false;
+            }
+            recordHit(distance);
+            if (ready != null) {
+                recordSaved(saved);
+                callback.onForecastLoaded(ready);
+            }
+            return true;
+        }
+
+        // For when no fix is coming, e.g. the location request failed or the screen closed
+        public void cancel() {
+            ForecastRepository.PendingForecast toCancel;
+            synchronized (this) {
+                if (resolved) {
+                    return;
+                }
+                resolved = true;
+                toCancel = pending;
+            }
+            toCancel.cancel();
+            recordUnused("cancelled");
+        }
+
+        @Override
+        public void onForecastLoaded(ForecastResponse forecast) {
+            ForecastRepository.ForecastCallback deliverTo;
+            long saved;
+            synchronized (this) {
+                this.forecast = forecast;
+                completedAt = clock.getAsLong();
+                deliverTo = claimant;
+                saved = savedMillis(startedAt, completedAt, claimedAt);
+            }
+            if (deliverTo != null) {
+                recordSaved(saved);
+                deliverTo.onForecastLoaded(forecast);
+            }
+        }
+
+        @Override
+        public void onForecastError(String error) {
+            ForecastRepository.ForecastCallback deliverTo;
+            synchronized (this) {
+                this.error = error;
+                completedAt = clock.getAsLong();
+                deliverTo = claimant;
+            }
+            if (deliverTo != null) {
+                deliverTo.onForecastError(error);
+            }
+        }
+    }
+
+    /**
+     * Latency a hit saved: without speculation the fetch would have started when the fix
+     * arrived and taken as long as it did, so whichever of those two is shorter.
+     */
+    static long savedMillis(long startedAt, long completedAt, long claimedAt) {
+        return Math.max(0, Math.min(completedAt - startedAt, claimedAt - startedAt));
+    }
+
+    // Great-circle distance
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private synchronized void recordHit(double distance) {
+        hits++;
+        Log.d(TAG, "Hit at " + Math.round(distance) + " m | " + summary());
+    }
+
+    private synchronized void recordMiss(double distance) {
+        misses++;
+        Log.d(TAG, "Miss at " + Math.round(distance) + " m, refetching | " + summary());
+    }
+
+    private synchronized void recordUnused(String reason) {
+        unused++;
+        Log.d(TAG, "Unused, " + reason + " | " + summary());
+    }
+
+    private synchronized void recordSaved(long millis) {
+        savedSamples++;
+        savedMillis += millis;
+        Log.d(TAG, "Saved " + millis + " ms | " + summary());
+    }
+
+    public synchronized int getSpeculationCount() { return speculations; }
+    public synchronized int getHitCount() { return hits; }
+    public synchronized int getMissCount() { return misses; }
+    public synchronized int getUnusedCount() { return unused; }
+    public synchronized long getTotalSavedMillis() { return savedMillis; }
+
+    // Hits over speculations that reached a fix
+    public synchronized double getHitRate() {
+        return hits + misses > 0 ? (double) hits / (hits + misses) : 0;
+    }
+
+    public synchronized long getAverageSavedMillis() {
+        return savedSamples > 0 ? savedMillis / savedSamples : 0;
+    }
+
+    public synchronized String summary() {
+        return "speculations=" + speculations + " hits=" + hits + " misses=" + misses + " unused=" + unused
+                + " hitRate=" + Math.round(getHitRate() * 100) + "% avgSaved=" + getAverageSavedMillis()
+                + "ms totalSaved=" + savedMillis + "ms";
+    }
+}
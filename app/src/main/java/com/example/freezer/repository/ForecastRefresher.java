@@ -0,0 +1,83 @@
+package com.example.freezer.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSnapshot;
+import com.example.freezer.model.SavedLocation;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Background refresh stage shared by every alert check. Fetches and parses each
+ * location's forecast at most once per cycle and hands out the stored snapshot to each rule.
+ */
+public class ForecastRefresher {
+    private static final String TAG = "ForecastRefresher";
+    static final String UNITS = "imperial";
+
+    private final ForecastRepository repository;
+    private final SettingsStore settingsStore;
+    // Location id -> its snapshot store
+    private final Function<String, ForecastSnapshotStore> stores;
+
+    public ForecastRefresher(Context context) {
+        this(ForecastRepository.getInstance(context), SettingsStore.getInstance(context),
+                snapshotStores(context.getApplicationContext()));
+    }
+
+    ForecastRefresher(ForecastRepository repository, SettingsStore settingsStore,
+                      Function<String, ForecastSnapshotStore> stores) {
+        this.repository = repository;
+        this.settingsStore = settingsStore;
+        this.stores = stores;
+    }
+
+    private static Function<String, ForecastSnapshotStore> snapshotStores(Context appContext) {
+        return id -> ForecastSnapshotStore.getInstance(appContext, id);
+    }
+
+    // Blocking variant for workers; throws once the deadline passes or the fetch fails
+    public ForecastSnapshot getSnapshotBlocking(SavedLocation location, long timeoutMillis) throws IOException {
+        ForecastSnapshotStore store = stores.apply(location.getId());
+        ForecastSnapshot current = store.get();
+        long now = System.currentTimeMillis();
+        List<AlertRule> rules = AlertRuleStore.getEnabled(settingsStore.get());
+
+        if (isUsable(current, rules, location.getLat(), location.getLon(), now)) {
+            Log.d(TAG, "Reusing " + location.getId() + " snapshot from "
+                    + TimeUnit.MILLISECONDS.toMinutes(current.getAgeMillis(now)) + " min ago");
+            return current;
+        }
+
+        ForecastResponse forecast = repository.getForecastBlocking(
+                location.getLat(), location.getLon(), UNITS, timeoutMillis);
+        return save(store, location.getLat(), location.getLon(), forecast);
+    }
+
+    // Lets foreground fetches of the current location refresh its snapshot for free
+    public ForecastSnapshot save(double lat, double lon, ForecastResponse forecast) {
+        return save(stores.apply(SavedLocation.CURRENT_ID), lat, lon, forecast);
+    }
+
+    private ForecastSnapshot save(ForecastSnapshotStore store, double lat, double lon, ForecastResponse forecast) {
+        ForecastSnapshot snapshot = new ForecastSnapshot(lat, lon, System.currentTimeMillis(), forecast);
+        store.put(snapshot);
+        return snapshot;
+    }
+
+    private boolean isUsable(ForecastSnapshot snapshot, List<AlertRule> rules, double lat, double lon, long now) {
+        return snapshot != null
+                && snapshot.getForecast() != null
+                && snapshot.getAgeMillis(now) >= 0
+                // Borderline forecasts expire within hours, calm ones at the next check
+                && now < RefreshPolicy.nextRefreshAtMillis(snapshot, rules)
+                && ForecastRepository.key(snapshot.getLat(), snapshot.getLon(), UNITS)
+                        .equals(ForecastRepository.key(lat, lon, UNITS));
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.freezer.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.freezer.BuildConfig;
+import com.example.freezer.api.RetrofitClient;
+import com.example.freezer.api.WeatherAPI;
+import com.example.freezer.model.ForecastResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Single entry point for forecast fetches. Concurrent requests for the same
+ * (lat, lon, units) key share one in-flight call and every caller gets its result.
+ * A caller can back out with {@link PendingForecast#cancel()}; the call itself is only
+ * cancelled once nobody is left waiting on it.
+ */
+public class ForecastRepository {
+    private static final String TAG = "ForecastRepository";
+    private static ForecastRepository instance;
+
+    private final WeatherAPI foregroundApi;
+    private final WeatherAPI backgroundApi;
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger networkCallCount = new AtomicInteger();
+    private final AtomicInteger deduplicatedCount = new AtomicInteger();
+    private final AtomicInteger cancelledCount = new AtomicInteger();
+
+    public interface ForecastCallback {
+        void onForecastLoaded(ForecastResponse forecast);
+        void onForecastError(String error);
+    }
+
+    // Guarded by inFlight
+    private static final class InFlight {
+        final List<ForecastCallback> callbacks = new ArrayList<>();
+        Call<ForecastResponse> call;
+        boolean cancelled;
+    }
+
+    // One caller's place in a fetch
+    public final class PendingForecast {
+        private final String key;
+        private final InFlight entry;
+        private final ForecastCallback callback;
+
+        private PendingForecast(String key, InFlight entry, ForecastCallback callback) {
+            this.key = key;
+            this.entry = entry;
+            this.callback = callback;
+        }
+
+        // The callback won't be called; a no-op once the fetch has completed
+        public void cancel() {
+            ForecastRepository.this.cancel(key, entry, callback);
+        }
+    }
+
+    public static synchronized ForecastRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new ForecastRepository(
+                    RetrofitClient.getForegroundApi(context), RetrofitClient.getBackgroundApi(context));
+        }
+        return instance;
+    }
+
+    ForecastRepository(WeatherAPI foregroundApi, WeatherAPI backgroundApi) {
+        this.foregroundApi = foregroundApi;
+        this.backgroundApi = backgroundApi;
+    }
+
+    public PendingForecast getForecast(double lat, double lon, String units, ForecastCallback callback) {
+        return fetch(foregroundApi, lat, lon, units, callback);
+    }
+
+    private PendingForecast fetch(WeatherAPI weatherAPI, double lat, double lon, String units,
+                                  ForecastCallback callback) {
+        requestCount.incrementAndGet();
+        String key = key(lat, lon, units);
+
+        InFlight entry;
+        synchronized (inFlight) {
+            entry = inFlight.get(key);
+            if (entry != null) {
+                entry.callbacks.add(callback);
+                deduplicatedCount.incrementAndGet();
+                Log.d(TAG, "Joined in-flight fetch for " + key + " | " + statsSummary());
+                return new PendingForecast(key, entry, callback);
+            }
+            entry = new InFlight();
+            entry.callbacks.add(callback);
+            inFlight.put(key, entry);
+        }
+
+        networkCallCount.incrementAndGet();
+        Call<ForecastResponse> call = weatherAPI.getForecastByCoords(
+                lat, lon, BuildConfig.WEATHER_API_KEY, units);
+        synchronized (inFlight) {
+            // Every caller may have backed out before the call existed
+            if (entry.cancelled) {
+                return new PendingForecast(key, entry, callback);
+            }
+            entry.call = call;
+        }
+
+        InFlight started = entry;
+        call.enqueue(new Callback<ForecastResponse>() {
+            @Override
+            public void onResponse(Call<ForecastResponse> call, Response<ForecastResponse> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    complete(key, started, response.body(), null);
+                } else {
+                    complete(key, started, null, "HTTP " + response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ForecastResponse> call, Throwable t) {
+                // OkHttp also reports a callTimeout as canceled, so only our own flag means nobody is waiting
+                boolean backedOut;
+                synchronized (inFlight) {
+                    backedOut = started.cancelled;
+                }
+                if (backedOut) {
+                    return;
+                }
+                Log.e(TAG, "Failed to fetch forecast", t);
+                complete(key, started, null, t.getMessage() != null ? t.getMessage() : "Network error");
+            }
+        });
+        return new PendingForecast(key, entry, callback);
+    }
+
+    private void cancel(String key, InFlight entry, ForecastCallback callback) {
+        Call<ForecastResponse> call;
+        synchronized (inFlight) {
+            if (!entry.callbacks.remove(callback) || !entry.callbacks.isEmpty()) {
+                return;
+            }
+            if (inFlight.get(key) == entry) {
+                inFlight.remove(key);
+            }
+            entry.cancelled = true;
+            call = entry.call;
+        }
+        if (call != null) {
+            call.cancel();
+        }
+        cancelledCount.incrementAndGet();
+        Log.d(TAG, "Cancelled fetch for " + key + " | " + statsSummary());
+    }
+
+    /**
+     * Blocking variant for background work. Joins an in-flight fetch like
+     * {@link #getForecast}, otherwise starts one on the background dispatcher, and gives
+     * up once {@code timeoutMillis} has passed. Giving up drops this waiter and cancels
+     * the call if nobody else is waiting on it.
+     */
+    public ForecastResponse getForecastBlocking(double lat, double lon, String units, long timeoutMillis)
+            throws IOException {
+        BlockingCallback callback = new BlockingCallback();
+        PendingForecast pending = fetch(backgroundApi, lat, lon, units, callback);
+        try {
+            return callback.await(timeoutMillis);
+        } catch (InterruptedIOException e) {
+            pending.cancel();
+            throw e;
+        }
+    }
+
+    private void complete(String key, InFlight entry, ForecastResponse forecast, String error) {
+        List<ForecastCallback> waiting;
+        synchronized (inFlight) {
+            // A cancelled fetch's key may already belong to a newer one
+            if (inFlight.get(key) == entry) {
+                inFlight.remove(key);
+            }
+            waiting = new ArrayList<>(entry.callbacks);
+            entry.callbacks.clear();
+        }
+        for (ForecastCallback callback : waiting) {
+            if (forecast != null) {
+                callback.onForecastLoaded(forecast);
+            } else {
+                callback.onForecastError(error);
+            }
+        }
+    }
+
+    // ~11 m of precision, so the UI's double fix and the workers' saved floats share a key
+    static String key(double lat, double lon, String units) {
+        return String.format(Locale.US, "%.4f,%.4f,%s", lat, lon, units);
+    }
+
+    private static class BlockingCallback implements ForecastCallback {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile ForecastResponse forecast;
+        private volatile String error;
+
+        @Override
+        public void onForecastLoaded(ForecastResponse forecast) {
+            this.forecast = forecast;
+            done.countDown();
+        }
+
+        @Override
+        public void onForecastError(String error) {
+            this.error = error;
+            done.countDown();
+        }
+
+        ForecastResponse await(long timeoutMillis) throws IOException {
+            try {
+                if (!done.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new InterruptedIOException("Forecast fetch exceeded " + timeoutMillis + " ms deadline");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for forecast");
+            }
+            if (forecast == null) {
+                throw new IOException(error);
+            }
+            return forecast;
+        }
+    }
+
+    public int getRequestCount() { return requestCount.get(); }
+    public int getNetworkCallCount() { return networkCallCount.get(); }
+    public int getDeduplicatedCount() { return deduplicatedCount.get(); }
+    public int getCancelledCount() { return cancelledCount.get(); }
+
+    private String statsSummary() {
+        return "requests=" + requestCount.get()
+                + " networkCalls=" + networkCallCount.get()
+                + " deduplicated=" + deduplicatedCount.get()
+                + " cancelled=" + cancelledCount.get();
+    }
+}
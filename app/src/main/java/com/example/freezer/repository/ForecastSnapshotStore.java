@@ -0,0 +1,161 @@
+package com.example.freezer.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.freezer.api.ForecastJsonDecoder;
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSnapshot;
+import com.example.freezer.model.SavedLocation;
+import com.google.gson.stream.JsonReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the latest {@link ForecastSnapshot} for one location in memory, backed by
+ * {@link ForecastHistoryStore} on disk so workers started in a fresh process can still
+ * reuse the last refresh. Each saved location has its own store.
+ */
+public class ForecastSnapshotStore {
+    private static final String TAG = "SnapshotStore";
+    private static final String LEGACY_FILE_NAME = "forecast_snapshot.json";
+    private static final Map<String, ForecastSnapshotStore> instances = new HashMap<>();
+    // One I/O thread for every location's database reads and writes
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor();
+
+    private final ForecastHistoryStore history;
+    private final String locationId;
+    private final File legacyFile;
+    private volatile ForecastSnapshot snapshot;
+    private volatile boolean loaded;
+
+    // Store for the device's current location
+    public static ForecastSnapshotStore getInstance(Context context) {
+        return getInstance(context, SavedLocation.CURRENT_ID);
+    }
+
+    public static synchronized ForecastSnapshotStore getInstance(Context context, String locationId) {
+        ForecastSnapshotStore store = instances.get(locationId);
+        if (store == null) {
+            store = new ForecastSnapshotStore(ForecastHistoryStore.getInstance(context), locationId,
+                    new File(context.getApplicationContext().getFilesDir(), legacyFileName(locationId)));
+            instances.put(locationId, store);
+        }
+        return store;
+    }
+
+    // JSON files snapshots were kept in before the history database
+    static String legacyFileName(String locationId) {
+        return SavedLocation.CURRENT_ID.equals(locationId)
+                ? LEGACY_FILE_NAME
+                : "forecast_snapshot_" + locationId + ".json";
+    }
+
+    public interface SnapshotListener {
+        void onSnapshotLoaded(ForecastSnapshot snapshot);
+    }
+
+    ForecastSnapshotStore(ForecastHistoryStore history, String locationId, File legacyFile) {
+        this.history = history;
+        this.locationId = locationId;
+        this.legacyFile = legacyFile;
+    }
+
+    // Reads from disk on first use; call off the main thread
+    public synchronized ForecastSnapshot get() {
+        if (!loaded) {
+            snapshot = load();
+            loaded = true;
+        }
+        return snapshot;
+    }
+
+    // Loads on the store's I/O thread and calls back there with the snapshot, or null if none
+    public void getAsync(SnapshotListener listener) {
+        writer.execute(() -> listener.onSnapshotLoaded(get()));
+    }
+
+    public void put(ForecastSnapshot newSnapshot) {
+        synchronized (this) {
+            snapshot = newSnapshot;
+            loaded = true;
+        }
+        writer.execute(() -> merge(newSnapshot));
+    }
+
+    private ForecastSnapshot load() {
+        try {
+            ForecastSnapshot stored = history.loadSnapshot(locationId);
+            return stored != null ? stored : migrateLegacyFile();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Failed to load snapshot", e);
+            return null;
+        }
+    }
+
+    private void merge(ForecastSnapshot toWrite) {
+        try {
+            history.merge(locationId, toWrite);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Failed to store snapshot", e);
+        }
+    }
+
+    // One-time move of a pre-database snapshot file into the history store
+    private ForecastSnapshot migrateLegacyFile() {
+        if (!legacyFile.exists()) {
+            return null;
+        }
+        ForecastSnapshot legacy = null;
+        try (JsonReader reader = new JsonReader(
+                new InputStreamReader(new FileInputStream(legacyFile), StandardCharsets.UTF_8))) {
+            legacy = readSnapshot(reader);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Failed to read legacy snapshot", e);
+        }
+        if (legacy != null) {
+            history.merge(locationId, legacy);
+        }
+        if (!legacyFile.delete()) {
+            Log.e(TAG, "Failed to delete legacy snapshot file");
+        }
+        return legacy;
+    }
+
+    static ForecastSnapshot readSnapshot(JsonReader reader) throws IOException {
+        double lat = 0;
+        double lon = 0;
+        long fetchedAt = 0;
+        ForecastResponse forecast = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "lat":
+                    lat = reader.nextDouble();
+                    break;
+                case "lon":
+                    lon = reader.nextDouble();
+                    break;
+                case "fetched_at":
+                    fetchedAt = reader.nextLong();
+                    break;
+                case "forecast":
+                    forecast = ForecastJsonDecoder.decode(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return forecast != null ? new ForecastSnapshot(lat, lon, fetchedAt, forecast) : null;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.freezer.repository;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.freezer.model.ForecastSnapshot;
+import com.example.freezer.model.SavedLocation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Refreshes the snapshot of every location in one pass. At most
+ * {@link #MAX_PARALLEL_FETCHES} fetches run at once and the priority location (the one
+ * on screen) is started first, including ahead of work queued by another pass.
+ */
+public class LocationRefreshPipeline {
+    private static final String TAG = "RefreshPipeline";
+    // Matches the background dispatcher's per-host limit in RetrofitClient
+    static final int MAX_PARALLEL_FETCHES = 2;
+
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final ThreadPoolExecutor executor = newExecutor();
+
+    private final ForecastRefresher refresher;
+
+    public static final class Result {
+        private final SavedLocation location;
+        private final ForecastSnapshot snapshot;
+        private final String error;
+
+        Result(SavedLocation location, ForecastSnapshot snapshot, String error) {
+            this.location = location;
+            this.snapshot = snapshot;
+            this.error = error;
+        }
+
+        public SavedLocation getLocation() { return location; }
+        public ForecastSnapshot getSnapshot() { return snapshot; }
+        public String getError() { return error; }
+
+        public boolean isSuccess() {
+            return snapshot != null;
+        }
+    }
+
+    public LocationRefreshPipeline(Context context) {
+        this(new ForecastRefresher(context));
+    }
+
+    LocationRefreshPipeline(ForecastRefresher refresher) {
+        this.refresher = refresher;
+    }
+
+    /**
+     * Blocks until every location has a snapshot or an error, or until timeoutMillis
+     * passes. Results come back in priority order; locations that didn't finish in time
+     * are reported as errors.
+     */
+    public List<Result> refreshAll(List<SavedLocation> locations, String priorityId, long timeoutMillis) {
+        List<SavedLocation> ordered = prioritize(locations, priorityId);
+        long startedAt = SystemClock.elapsedRealtime();
+        long deadline = startedAt + timeoutMillis;
+
+        // Read even when the await times out, so a late write must still be safely published
+        AtomicReferenceArray<Result> results = new AtomicReferenceArray<>(ordered.size());
+        CountDownLatch done = new CountDownLatch(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            SavedLocation location = ordered.get(i);
+            int slot = i;
+            int priority = location.getId().equals(priorityId) ? 0 : 1;
+            executor.execute(new FetchTask(priority, () -> {
+                results.set(slot, fetch(location, deadline));
+                done.countDown();
+            }));
+        }
+
+        try {
+            done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Result> collected = new ArrayList<>(ordered.size());
+        int failures = 0;
+        for (int i = 0; i < ordered.size(); i++) {
+            Result result = results.get(i);
+            if (result == null) {
+                result = new Result(ordered.get(i), null, "Timed out after " + timeoutMillis + " ms");
+            }
+            if (!result.isSuccess()) {
+                failures++;
+            }
+            collected.add(result);
+        }
+        Log.d(TAG, "Refreshed " + (ordered.size() - failures) + "/" + ordered.size() + " locations in "
+                + (SystemClock.elapsedRealtime() - startedAt) + " ms");
+        return collected;
+    }
+
+    private Result fetch(SavedLocation location, long deadline) {
+        long remaining = deadline - SystemClock.elapsedRealtime();
+        if (remaining <= 0) {
+            return new Result(location, null, "Deadline passed before fetch started");
+        }
+        try {
+            return new Result(location, refresher.getSnapshotBlocking(location, remaining), null);
+        } catch (IOException e) {
+            Log.e(TAG, "Refresh failed for " + location.getId(), e);
+            return new Result(location, null, e.getMessage());
+        }
+    }
+
+    // Priority location first, the rest in their saved order
+    static List<SavedLocation> prioritize(List<SavedLocation> locations, String priorityId) {
+        List<SavedLocation> ordered = new ArrayList<>(locations.size());
+        for (SavedLocation location : locations) {
+            if (location.getId().equals(priorityId)) {
+                ordered.add(location);
+            }
+        }
+        for (SavedLocation location : locations) {
+            if (!location.getId().equals(priorityId)) {
+                ordered.add(location);
+            }
+        }
+        return Collections.unmodifiableList(ordered);
+    }
+
+    private static ThreadPoolExecutor newExecutor() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                MAX_PARALLEL_FETCHES, MAX_PARALLEL_FETCHES, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    // Lower priority runs first; ties run in submission order
+    static final class FetchTask implements Runnable, Comparable<FetchTask> {
+        private final int priority;
+        private final long order = sequence.getAndIncrement();
+        private final Runnable work;
+
+        FetchTask(int priority, Runnable work) {
+            this.priority = priority;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            work.run();
+        }
+
+        @Override
+        public int compareTo(FetchTask other) {
+            if (priority != other.priority) {
+                return Integer.compare(priority, other.priority);
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+}
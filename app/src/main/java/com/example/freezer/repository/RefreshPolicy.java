@@ -0,0 +1,123 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.model.AlertEngine;
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.example.freezer.model.ForecastSnapshot;
+import com.example.freezer.model.ForecastWindows;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how long a snapshot stays good from what it says about the enabled alert
+ * rules. Forecasts close to a rule's threshold inside its window are refreshed within
+ * hours; calm ones last until the next check that would otherwise read a snapshot older
+ * than {@link #MAX_AGE_AT_CHECK_MILLIS}. A snapshot is never due before the provider's
+ * next 3-hourly model run, since refetching earlier returns the same data.
+ */
+public final class RefreshPolicy {
+    public static final long MODEL_UPDATE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(3);
+    static final long MAX_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(24);
+    // Two model runs; older than this, a check refetches instead of reusing the snapshot
+    static final long MAX_AGE_AT_CHECK_MILLIS = TimeUnit.HOURS.toMillis(6);
+
+    // Distance from a threshold (upper bound, exclusive) -> refresh interval, per metric unit
+    private static final double[] TEMP_MARGINS = {2, 4, 8, 15};
+    private static final double[] PERCENT_MARGINS = {5, 10, 20};
+    private static final double[] WIND_MARGINS = {3, 6, 12};
+    // Amounts sit at 0 on dry days, so only a forecast right at the threshold counts
+    private static final double[] PRECIPITATION_MARGINS = {0.05, 0.1};
+    private static final long[] INTERVALS_MILLIS = {
+            TimeUnit.HOURS.toMillis(1),
+            TimeUnit.HOURS.toMillis(3),
+            TimeUnit.HOURS.toMillis(6),
+            TimeUnit.HOURS.toMillis(12),
+    };
+
+    private RefreshPolicy() {
+    }
+
+    // Epoch millis after which the snapshot should be refetched for the given enabled rules
+    public static long nextRefreshAtMillis(ForecastSnapshot snapshot, List<AlertRule> rules) {
+        long fetchedAt = snapshot.getFetchedAtMillis();
+        ForecastResponse forecast = snapshot.getForecast();
+        ForecastSeries series = forecast.getSeries();
+        long now = TimeUnit.MILLISECONDS.toSeconds(fetchedAt);
+        int utcOffset = forecast.getUtcOffsetSeconds(now);
+
+        long refreshAt = fetchedAt + MAX_INTERVAL_MILLIS;
+        for (AlertRule rule : rules) {
+            long start = ForecastWindows.windowStart(now, utcOffset, rule.getStartHour(), rule.getEndHour());
+            long end = ForecastWindows.windowEnd(start, rule.getStartHour(), rule.getEndHour());
+            for (AlertRule.Condition condition : rule.getConditions()) {
+                double margin = margin(series, start, end, condition);
+                refreshAt = Math.min(refreshAt, fetchedAt + intervalFor(margin, margins(condition.getMetric())));
+            }
+            // Don't let the rule's next check run on a snapshot this old
+            long checkAt = nextCheckMillis(fetchedAt, utcOffset, rule.getCheck());
+            if (checkAt - fetchedAt > MAX_AGE_AT_CHECK_MILLIS) {
+                refreshAt = Math.min(refreshAt, checkAt);
+            }
+        }
+        return Math.max(refreshAt, nextModelUpdateMillis(fetchedAt));
+    }
+
+    // Model runs land on 3-hour UTC boundaries
+    static long nextModelUpdateMillis(long fetchedAtMillis) {
+        return (Math.floorDiv(fetchedAtMillis, MODEL_UPDATE_INTERVAL_MILLIS) + 1) * MODEL_UPDATE_INTERVAL_MILLIS;
+    }
+
+    // Closest the window's slots get to the condition's threshold, in the metric's unit
+    static double margin(ForecastSeries series, long windowStart, long windowEnd, AlertRule.Condition condition) {
+        double margin = Double.MAX_VALUE;
+        for (int i = series.indexAtOrAfter(windowStart); i < series.size() && series.getDt(i) < windowEnd; i++) {
+            double value = AlertEngine.value(series, condition.getMetric(), i);
+            margin = Math.min(margin, Math.abs(value - condition.getThreshold()));
+        }
+        return margin;
+    }
+
+    /**
+     * Next time after fetchedAtMillis that check's local hour comes round, in the
+     * forecast city's time. Alarms use the device's zone, which is the same for the
+     * current location.
+     */
+    static long nextCheckMillis(long fetchedAtMillis, int utcOffset, AlertRule.Check check) {
+        long now = TimeUnit.MILLISECONDS.toSeconds(fetchedAtMillis);
+        long checkAt = ForecastWindows.localMidnight(now, utcOffset)
+                + check.getHourOfDay() * ForecastWindows.SECONDS_PER_HOUR;
+        if (checkAt <= now) {
+            checkAt += ForecastWindows.SECONDS_PER_DAY;
+        }
+        return TimeUnit.SECONDS.toMillis(checkAt);
+    }
+
+    private static double[] margins(AlertRule.Metric metric) {
+        switch (metric) {
+            case TEMP:
+            case FEELS_LIKE:
+                return TEMP_MARGINS;
+            case HUMIDITY:
+            case POP_PERCENT:
+                return PERCENT_MARGINS;
+            case WIND_SPEED:
+                return WIND_MARGINS;
+            case RAIN_MM:
+            case SNOW_MM:
+                return PRECIPITATION_MARGINS;
+            default:
+                throw new IllegalArgumentException("Unknown metric " + metric);
+        }
+    }
+
+    private static long intervalFor(double margin, double[] margins) {
+        for (int tier = 0; tier < margins.length; tier++) {
+            if (margin < margins[tier]) {
+                return INTERVALS_MILLIS[tier];
+            }
+        }
+        return MAX_INTERVAL_MILLIS;
+    }
+}
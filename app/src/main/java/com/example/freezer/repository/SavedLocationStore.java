@@ -0,0 +1,169 @@
+package com.example.freezer.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.freezer.model.SavedLocation;
+import com.example.freezer.model.Settings;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The locations alert checks run for: the last device fix plus any saved sites. Both
+ * live in the shared {@link SettingsStore} snapshot; saved sites as a JSON list.
+ */
+public class SavedLocationStore {
+    private static final String TAG = "SavedLocationStore";
+    private static SavedLocationStore instance;
+
+    private final SettingsStore settingsStore;
+
+    public static synchronized SavedLocationStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new SavedLocationStore(SettingsStore.getInstance(context));
+        }
+        return instance;
+    }
+
+    SavedLocationStore(SettingsStore settingsStore) {
+        this.settingsStore = settingsStore;
+    }
+
+    // Current location first when known, then saved sites in the order they were added.
+    // Waits for settings to load, so call off the main thread.
+    public List<SavedLocation> getAll() {
+        Settings settings = settingsStore.get();
+        List<SavedLocation> locations = new ArrayList<>();
+        if (settings.hasLastLocation()) {
+            locations.add(new SavedLocation(SavedLocation.CURRENT_ID, "Current location",
+                    settings.getLastLat(), settings.getLastLon()));
+        }
+        locations.addAll(decode(settings.getSavedLocationsJson()));
+        return locations;
+    }
+
+    public List<SavedLocation> getSaved() {
+        return getSaved(settingsStore.get());
+    }
+
+    // Saved sites in an already-loaded snapshot, for callers on the main thread
+    public static List<SavedLocation> getSaved(Settings settings) {
+        return decode(settings.getSavedLocationsJson());
+    }
+
+    public void setCurrent(double lat, double lon) {
+        settingsStore.update(settings -> settings.setLastLocation((float) lat, (float) lon));
+    }
+
+    // Throws IllegalArgumentException for a blank name or coordinates off the globe
+    public SavedLocation add(String name, double lat, double lon) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        if (!(lat >= -90 && lat <= 90) || !(lon >= -180 && lon <= 180)) {
+            throw new IllegalArgumentException("Coordinates out of range: " + lat + ", " + lon);
+        }
+        SavedLocation location = new SavedLocation(UUID.randomUUID().toString(), name.trim(), lat, lon);
+        settingsStore.update(settings -> {
+            List<SavedLocation> saved = new ArrayList<>(decode(settings.build().getSavedLocationsJson()));
+            saved.add(location);
+            settings.setSavedLocationsJson(encode(saved));
+        });
+        return location;
+    }
+
+    public void remove(String id) {
+        settingsStore.update(settings -> {
+            List<SavedLocation> saved = new ArrayList<>(decode(settings.build().getSavedLocationsJson()));
+            for (int i = 0; i < saved.size(); i++) {
+                if (saved.get(i).getId().equals(id)) {
+                    saved.remove(i);
+                    settings.setSavedLocationsJson(encode(saved));
+                    return;
+                }
+            }
+        });
+    }
+
+    private static List<SavedLocation> decode(String json) {
+        if (json == null) {
+            return Collections.emptyList();
+        }
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            return readLocations(reader);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Failed to read saved locations", e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static String encode(List<SavedLocation> saved) {
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writeLocations(writer, saved);
+        } catch (IOException e) {
+            // StringWriter doesn't throw
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    static List<SavedLocation> readLocations(JsonReader reader) throws IOException {
+        List<SavedLocation> locations = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String id = null;
+            String name = "";
+            double lat = 0;
+            double lon = 0;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id":
+                        id = reader.nextString();
+                        break;
+                    case "name":
+                        name = reader.nextString();
+                        break;
+                    case "lat":
+                        lat = reader.nextDouble();
+                        break;
+                    case "lon":
+                        lon = reader.nextDouble();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (id != null) {
+                locations.add(new SavedLocation(id, name, lat, lon));
+            }
+        }
+        reader.endArray();
+        return locations;
+    }
+
+    static void writeLocations(JsonWriter writer, List<SavedLocation> locations) throws IOException {
+        writer.beginArray();
+        for (SavedLocation location : locations) {
+            writer.beginObject();
+            writer.name("id").value(location.getId());
+            writer.name("name").value(location.getName());
+            writer.name("lat").value(location.getLat());
+            writer.name("lon").value(location.getLon());
+            writer.endObject();
+        }
+        writer.endArray();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.freezer.repository;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.freezer.model.Settings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide settings, loaded from weather_prefs once on a background thread and then
+ * served from an in-memory {@link Settings} snapshot that the UI and workers share.
+ * Updates apply to the snapshot immediately; writes within {@link #FLUSH_DELAY_MILLIS}
+ * are batched into one durable commit off the main thread.
+ */
+public class SettingsStore {
+    private static final String TAG = "SettingsStore";
+    private static final String PREFS_NAME = "weather_prefs";
+    static final long FLUSH_DELAY_MILLIS = 200;
+
+    static final String KEY_FREEZE_ALERTS_ENABLED = "freeze_alerts_enabled";
+    static final String KEY_UMBRELLA_ALERTS_ENABLED = "umbrella_alerts_enabled";
+    static final String KEY_LAST_LAT = "last_lat";
+    static final String KEY_LAST_LON = "last_lon";
+    static final String KEY_SAVED_LOCATIONS = "saved_locations";
+    static final String KEY_ALERT_RULES = "alert_rules";
+    static final String KEY_PREFETCH_MAX_DISTANCE = "prefetch_max_distance_meters";
+
+    private static SettingsStore instance;
+
+    private final SharedPreferences prefs;
+    private final ScheduledExecutorService io;
+    private final Executor callbackExecutor;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private Settings settings;
+    private final List<Edit> pendingEdits = new ArrayList<>();
+    private boolean flushScheduled;
+
+    public interface Listener {
+        void onSettingsChanged(Settings settings);
+    }
+
+    public interface Edit {
+        void apply(Settings.Builder builder);
+    }
+
+    public static synchronized SettingsStore getInstance(Context context) {
+        if (instance == null) {
+            Handler mainHandler = new Handler(Looper.getMainLooper());
+            instance = new SettingsStore(
+                    context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE),
+                    Executors.newSingleThreadScheduledExecutor(),
+                    mainHandler::post);
+        }
+        return instance;
+    }
+
+    // Starts loading right away so the snapshot is usually ready by the first read
+    SettingsStore(SharedPreferences prefs, ScheduledExecutorService io, Executor callbackExecutor) {
+        this.prefs = prefs;
+        this.io = io;
+        this.callbackExecutor = callbackExecutor;
+        io.execute(this::load);
+    }
+
+    // Snapshot if loading has finished, otherwise null; never blocks
+    public synchronized Settings peek() {
+        return settings;
+    }
+
+    // Blocks until loaded; for workers and other background threads
+    public Settings get() {
+        try {
+            loaded.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Settings current = peek();
+        return current != null ? current : Settings.DEFAULTS;
+    }
+
+    // Calls back on the main thread once loaded
+    public void getAsync(Listener listener) {
+        io.execute(() -> {
+            Settings current = get();
+            callbackExecutor.execute(() -> listener.onSettingsChanged(current));
+        });
+    }
+
+    // Listeners hear about every change on the main thread
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Applies edit to the in-memory snapshot and schedules a batched write. Edits made
+     * before loading finishes are replayed on top of the stored values.
+     */
+    public synchronized void update(Edit edit) {
+        if (settings == null) {
+            pendingEdits.add(edit);
+            return;
+        }
+        Settings.Builder builder = settings.buildUpon();
+        edit.apply(builder);
+        settings = builder.build();
+        scheduleFlush();
+        notifyListeners(settings);
+    }
+
+    private void load() {
+        Settings stored = new Settings.Builder()
+                .setFreezeAlertsEnabled(prefs.getBoolean(KEY_FREEZE_ALERTS_ENABLED, false))
+                .setUmbrellaAlertsEnabled(prefs.getBoolean(KEY_UMBRELLA_ALERTS_ENABLED, false))
+                .setLastLocation(prefs.getFloat(KEY_LAST_LAT, 0), prefs.getFloat(KEY_LAST_LON, 0))
+                .setSavedLocationsJson(prefs.getString(KEY_SAVED_LOCATIONS, null))
+                .setAlertRulesJson(prefs.getString(KEY_ALERT_RULES, null))
+                .setPrefetchMaxDistanceMeters(prefs.getFloat(KEY_PREFETCH_MAX_DISTANCE,
+                        Settings.DEFAULT_PREFETCH_MAX_DISTANCE_METERS))
+                .build();
+
+        synchronized (this) {
+            Settings.Builder builder = stored.buildUpon();
+            for (Edit edit : pendingEdits) {
+                edit.apply(builder);
+            }
+            settings = builder.build();
+            if (!pendingEdits.isEmpty()) {
+                pendingEdits.clear();
+                scheduleFlush();
+                notifyListeners(settings);
+            }
+        }
+        loaded.countDown();
+    }
+
+    // Caller holds the lock
+    private void scheduleFlush() {
+        if (flushScheduled) {
+            return;
+        }
+        flushScheduled = true;
+        io.schedule(this::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        Settings toWrite;
+        synchronized (this) {
+            flushScheduled = false;
+            toWrite = settings;
+        }
+        boolean written = prefs.edit()
+                .putBoolean(KEY_FREEZE_ALERTS_ENABLED, toWrite.isFreezeAlertsEnabled())
+                .putBoolean(KEY_UMBRELLA_ALERTS_ENABLED, toWrite.isUmbrellaAlertsEnabled())
+                .putFloat(KEY_LAST_LAT, toWrite.getLastLat())
+                .putFloat(KEY_LAST_LON, toWrite.getLastLon())
+                .putString(KEY_SAVED_LOCATIONS, toWrite.getSavedLocationsJson())
+                .putString(KEY_ALERT_RULES, toWrite.getAlertRulesJson())
+                .putFloat(KEY_PREFETCH_MAX_DISTANCE, toWrite.getPrefetchMaxDistanceMeters())
+                .commit();
+        if (!written) {
+            Log.e(TAG, "Failed to write settings");
+        }
+    }
+
+    // Caller holds the lock, so notifications are posted in update order
+    private void notifyListeners(Settings updated) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        callbackExecutor.execute(() -> {
+            for (Listener listener : listeners) {
+                listener.onSettingsChanged(updated);
+            }
+        });
+    }
+}
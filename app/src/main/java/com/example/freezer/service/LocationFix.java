@@ -0,0 +1,34 @@
+package com.example.freezer.service;
+
+/**
+ * A location result plus which tier of {@link LocationService} produced it and how long
+ * it took from the request.
+ */
+public class LocationFix {
+    public enum Tier { CACHED, BALANCED, HIGH_ACCURACY }
+
+    private final double lat;
+    private final double lon;
+    private final float accuracyMeters;
+    private final Tier tier;
+    private final long elapsedMillis;
+
+    public LocationFix(double lat, double lon, float accuracyMeters, Tier tier, long elapsedMillis) {
+        this.lat = lat;
+        this.lon = lon;
+        this.accuracyMeters = accuracyMeters;
+        this.tier = tier;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getLat() { return lat; }
+    public double getLon() { return lon; }
+    public float getAccuracyMeters() { return accuracyMeters; }
+    public Tier getTier() { return tier; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return tier + " fix (" + accuracyMeters + " m) in " + elapsedMillis + " ms";
+    }
+}
@@ -1,22 +1,39 @@
 package com.example.freezer.service;
 
 import android.Manifest;
+import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.pm.PackageManager;
 import android.location.Location;
+import android.os.SystemClock;
+import android.util.Log;
 
 import androidx.core.content.ContextCompat;
 
+import com.google.android.gms.location.CurrentLocationRequest;
 import com.google.android.gms.location.FusedLocationProviderClient;
-import com.google.android.gms.location.LocationCallback;
-import com.google.android.gms.location.LocationRequest;
-import com.google.android.gms.location.LocationResult;
 import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.location.Priority;
+import com.google.android.gms.tasks.CancellationTokenSource;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiered location lookup. A city-scale forecast doesn't need GPS, so a recent cached fix is
+ * used when it fits the age and accuracy budget, then a balanced-power fix, and only if
+ * that times out a high-accuracy one.
+ */
 public class LocationService {
+    private static final String TAG = "LocationService";
+
     private Context context;
     private FusedLocationProviderClient fusedLocationClient;
-    private LocationCallback locationCallback;
+    private CancellationTokenSource cancellationSource;
+
+    private long maxCachedAgeMillis = TimeUnit.MINUTES.toMillis(15);
+    private float maxCachedAccuracyMeters = 2000;
+    private long balancedTimeoutMillis = TimeUnit.SECONDS.toMillis(5);
+    private long highAccuracyTimeoutMillis = TimeUnit.SECONDS.toMillis(15);
 
     public LocationService(Context context) {
         this.context = context;
@@ -24,10 +41,22 @@ public class LocationService {
     }
 
     public interface LocationListener {
-        void onLocationReceived(double lat, double lon);
+        void onLocationReceived(LocationFix fix);
         void onLocationError(String error);
     }
 
+    // How old and how coarse a last-known location may be and still be used as-is
+    public void setCachedFixBudget(long maxAgeMillis, float maxAccuracyMeters) {
+        this.maxCachedAgeMillis = maxAgeMillis;
+        this.maxCachedAccuracyMeters = maxAccuracyMeters;
+    }
+
+    public void setFixTimeouts(long balancedTimeoutMillis, long highAccuracyTimeoutMillis) {
+        this.balancedTimeoutMillis = balancedTimeoutMillis;
+        this.highAccuracyTimeoutMillis = highAccuracyTimeoutMillis;
+    }
+
+    @SuppressLint("MissingPermission")
     public void getCurrentLocation(LocationListener listener) {
         if (ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_FINE_LOCATION)
                 != PackageManager.PERMISSION_GRANTED) {
@@ -35,38 +64,84 @@ public class LocationService {
             return;
         }
 
-        locationCallback = new LocationCallback() {
-            @Override
-            public void onLocationResult(LocationResult locationResult) {
-                if (locationResult == null) {
-                    listener.onLocationError("Location result is null");
-                    return;
-                }
-
-                Location location = locationResult.getLastLocation();
-                if (location != null) {
-                    listener.onLocationReceived(location.getLatitude(), location.getLongitude());
-                } else {
-                    listener.onLocationError("Location is null");
-                }
-
-                // Stop location updates after getting one result
-                fusedLocationClient.removeLocationUpdates(locationCallback);
-            }
-        };
-
-        LocationRequest locationRequest = LocationRequest.create()
-                .setPriority(LocationRequest.PRIORITY_HIGH_ACCURACY)
-                .setInterval(10000)
-                .setFastestInterval(5000)
-                .setNumUpdates(1);
-
-        fusedLocationClient.requestLocationUpdates(locationRequest, locationCallback, null);
+        stopLocationUpdates();
+        CancellationTokenSource source = new CancellationTokenSource();
+        cancellationSource = source;
+        long startedAt = SystemClock.elapsedRealtime();
+
+        fusedLocationClient.getLastLocation()
+                .addOnSuccessListener(location -> {
+                    // getLastLocation takes no token, so a stop or newer request can land first
+                    if (source.getToken().isCancellationRequested()) {
+                        return;
+                    }
+                    if (isWithinCachedBudget(location)) {
+                        deliver(listener, location, LocationFix.Tier.CACHED, startedAt);
+                    } else {
+                        requestFix(listener, source, LocationFix.Tier.BALANCED, startedAt);
+                    }
+                })
+                .addOnFailureListener(e -> requestFix(listener, source, LocationFix.Tier.BALANCED, startedAt));
+    }
+
+    @SuppressLint("MissingPermission")
+    private void requestFix(LocationListener listener, CancellationTokenSource source,
+                            LocationFix.Tier tier, long startedAt) {
+        if (source.getToken().isCancellationRequested()) {
+            return;
+        }
+
+        boolean balanced = tier == LocationFix.Tier.BALANCED;
+        CurrentLocationRequest request = new CurrentLocationRequest.Builder()
+                .setPriority(balanced ? Priority.PRIORITY_BALANCED_POWER_ACCURACY : Priority.PRIORITY_HIGH_ACCURACY)
+                .setDurationMillis(balanced ? balancedTimeoutMillis : highAccuracyTimeoutMillis)
+                .build();
+
+        // getCurrentLocation answers null once the duration passes without a fix
+        fusedLocationClient.getCurrentLocation(request, source.getToken())
+                .addOnSuccessListener(location -> {
+                    if (location != null) {
+                        deliver(listener, location, tier, startedAt);
+                    } else if (balanced) {
+                        Log.d(TAG, "Balanced fix timed out, escalating to high accuracy");
+                        requestFix(listener, source, LocationFix.Tier.HIGH_ACCURACY, startedAt);
+                    } else {
+                        listener.onLocationError("Location is null");
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    if (source.getToken().isCancellationRequested()) {
+                        return;
+                    }
+                    if (balanced) {
+                        requestFix(listener, source, LocationFix.Tier.HIGH_ACCURACY, startedAt);
+                    } else {
+                        listener.onLocationError(e.getMessage() != null ? e.getMessage() : "Location unavailable");
+                    }
+                });
+    }
+
+    private boolean isWithinCachedBudget(Location location) {
+        if (location == null || !location.hasAccuracy()) {
+            return false;
+        }
+        long ageMillis = TimeUnit.NANOSECONDS.toMillis(
+                SystemClock.elapsedRealtimeNanos() - location.getElapsedRealtimeNanos());
+        return ageMillis <= maxCachedAgeMillis && location.getAccuracy() <= maxCachedAccuracyMeters;
+    }
+
+    private void deliver(LocationListener listener, Location location, LocationFix.Tier tier, long startedAt) {
+        LocationFix fix = new LocationFix(location.getLatitude(), location.getLongitude(),
+                location.hasAccuracy() ? location.getAccuracy() : -1,
+                tier, SystemClock.elapsedRealtime() - startedAt);
+        Log.d(TAG, fix.toString());
+        listener.onLocationReceived(fix);
     }
 
     public void stopLocationUpdates() {
-        if (locationCallback != null) {
-            fusedLocationClient.removeLocationUpdates(locationCallback);
+        if (cancellationSource != null) {
+            cancellationSource.cancel();
+            cancellationSource = null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package com.example.freezer.workers;
+
+import android.app.AlarmManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.repository.AlertRuleStore;
+import com.example.freezer.repository.SettingsStore;
+
+/**
+ * Runs an alert check when its alarm fires and sets the next one. Also restores alarms
+ * after a reboot, a clock or timezone change, or a change in exact alarm permission,
+ * since each of those drops or invalidates what was set.
+ */
+public class AlertAlarmReceiver extends BroadcastReceiver {
+    private static final String TAG = "AlertAlarmReceiver";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (AlertScheduler.ACTION_ALERT_DUE.equals(action)) {
+            long firedAt = System.currentTimeMillis();
+            AlertRule.Check check = AlertRule.Check.valueOf(intent.getStringExtra(AlertScheduler.KEY_CHECK));
+            long scheduledAt = intent.getLongExtra(AlertScheduler.KEY_SCHEDULED_AT, firedAt);
+            Log.d(TAG, check + " alarm fired " + (firedAt - scheduledAt) + " ms after target");
+
+            AlertScheduler.runCheck(context, check, scheduledAt, firedAt);
+            AlertScheduler.schedule(context, check, Math.max(firedAt, scheduledAt));
+            return;
+        }
+
+        if (Intent.ACTION_BOOT_COMPLETED.equals(action)
+                || Intent.ACTION_TIME_CHANGED.equals(action)
+                || Intent.ACTION_TIMEZONE_CHANGED.equals(action)
+                || AlarmManager.ACTION_SCHEDULE_EXACT_ALARM_PERMISSION_STATE_CHANGED.equals(action)) {
+            Context appContext = context.getApplicationContext();
+            PendingResult result = goAsync();
+            SettingsStore.getInstance(appContext).getAsync(settings -> {
+                AlertScheduler.sync(appContext, AlertRuleStore.getAll(settings));
+                result.finish();
+            });
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.freezer.workers;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.ForegroundInfo;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.freezer.model.AlertEngine;
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.example.freezer.model.ForecastWindows;
+import com.example.freezer.model.SavedLocation;
+import com.example.freezer.model.Settings;
+import com.example.freezer.repository.AlertDeliveryLog;
+import com.example.freezer.repository.AlertRuleStore;
+import com.example.freezer.repository.LocationRefreshPipeline;
+import com.example.freezer.repository.SavedLocationStore;
+import com.example.freezer.repository.SettingsStore;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one daily {@link AlertRule.Check}: every enabled rule in it, for every location,
+ * compiled into one {@link AlertEngine} so each forecast is scanned once.
+ */
+public class AlertCheckWorker extends Worker {
+    private static final String TAG = "AlertCheck";
+    // Workers get a 10 minute execution window; leave room for retries to be scheduled
+    static final long FETCH_DEADLINE_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    static final int MAX_ATTEMPTS = 3;
+    private static final int FOREGROUND_NOTIFICATION_ID = 1001;
+
+    public AlertCheckWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        long startedAt = SystemClock.elapsedRealtime();
+        AlertRule.Check check = AlertRule.Check.valueOf(getInputData().getString(AlertScheduler.KEY_CHECK));
+        // Same in-memory snapshot the UI reads; only waits if this process just started
+        Settings settings = SettingsStore.getInstance(getApplicationContext()).get();
+        List<AlertRule> rules = AlertRuleStore.getEnabled(settings, check);
+        if (rules.isEmpty()) {
+            Log.d(TAG, "No " + check + " rules enabled, skipping check");
+            return Result.success();
+        }
+
+        List<SavedLocation> locations = SavedLocationStore.getInstance(getApplicationContext()).getAll();
+        if (locations.isEmpty()) {
+            return Result.success();
+        }
+
+        // One pass over every location; each one's snapshot is fetched at most once per cycle
+        List<LocationRefreshPipeline.Result> results = new LocationRefreshPipeline(getApplicationContext())
+                .refreshAll(locations, SavedLocation.CURRENT_ID, FETCH_DEADLINE_MILLIS);
+        long fetchedAt = SystemClock.elapsedRealtime();
+
+        AlertEngine engine = AlertEngine.compile(rules);
+        long now = System.currentTimeMillis() / 1000;
+        int failures = 0;
+        int notifications = 0;
+        for (LocationRefreshPipeline.Result result : results) {
+            if (!result.isSuccess()) {
+                Log.e(TAG, "No forecast for " + result.getLocation().getId() + ": " + result.getError());
+                failures++;
+                continue;
+            }
+            ForecastResponse forecast = result.getSnapshot().getForecast();
+            int utcOffset = forecast.getUtcOffsetSeconds(now);
+            for (AlertEngine.Match match : engine.evaluate(forecast.getSeries(), now, utcOffset)) {
+                sendAlert(match, forecast, utcOffset, result.getLocation());
+                notifications++;
+            }
+        }
+
+        long finishedAt = SystemClock.elapsedRealtime();
+        Log.d(TAG, check + " run of " + rules.size() + " rules finished in " + (finishedAt - startedAt)
+                + " ms (fetch " + (fetchedAt - startedAt) + " ms, analysis " + (finishedAt - fetchedAt) + " ms)");
+
+        if (failures > 0) {
+            int attempt = getInputData().getInt(AlertScheduler.KEY_ATTEMPT, 0);
+            Log.e(TAG, failures + " of " + results.size() + " locations failed (attempt " + (attempt + 1) + ")");
+            if (attempt + 1 < MAX_ATTEMPTS) {
+                // Not Result.retry(): that reruns without a network constraint, waking an offline device
+                AlertScheduler.retryCheck(getApplicationContext(), check,
+                        getInputData().getLong(AlertScheduler.KEY_SCHEDULED_AT, 0),
+                        getInputData().getLong(AlertScheduler.KEY_FIRED_AT, 0), attempt + 1);
+                // Failing here would also fail the appended follow-up
+                return Result.success();
+            }
+            recordDelivery(check, notifications, failures);
+            return Result.failure();
+        }
+        recordDelivery(check, notifications, failures);
+        return Result.success();
+    }
+
+    // Expedited work runs as a foreground service before Android 12, which needs a notification
+    @NonNull
+    @Override
+    public ForegroundInfo getForegroundInfo() {
+        Context context = getApplicationContext();
+        android.app.NotificationManager notificationManager =
+                (android.app.NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.O) {
+            notificationManager.createNotificationChannel(channel("alert_checks"));
+        }
+        android.app.Notification notification = new androidx.core.app.NotificationCompat.Builder(context, "alert_checks")
+                .setSmallIcon(android.R.drawable.ic_popup_sync)
+                .setContentTitle("Checking the forecast")
+                .setPriority(androidx.core.app.NotificationCompat.PRIORITY_LOW)
+                .build();
+        return new ForegroundInfo(FOREGROUND_NOTIFICATION_ID, notification);
+    }
+
+    // Alarm-started runs only; the final attempt's finish time is when the alert arrived
+    private void recordDelivery(AlertRule.Check check, int notifications, int failures) {
+        long scheduledAt = getInputData().getLong(AlertScheduler.KEY_SCHEDULED_AT, 0);
+        if (scheduledAt == 0) {
+            return;
+        }
+        long firedAt = getInputData().getLong(AlertScheduler.KEY_FIRED_AT, scheduledAt);
+        AlertDeliveryLog.getInstance(getApplicationContext()).record(check.name(),
+                scheduledAt, firedAt, System.currentTimeMillis(), notifications, failures);
+    }
+
+    private void sendAlert(AlertEngine.Match match, ForecastResponse forecast, int utcOffset,
+                           SavedLocation location) {
+        AlertRule rule = match.getRule();
+        ForecastSeries series = forecast.getSeries();
+        String cityName = location.placeName(forecast);
+        String channelId;
+        String title;
+        String text;
+        int icon;
+        if (AlertRule.FREEZE_ID.equals(rule.getId())) {
+            channelId = "freeze_alerts";
+            title = "❄️ Freezing Alert Overnight!";
+            text = String.format("Low of %.1f°F in %s. Protect plants/pipes!", match.getPeakValue(), cityName);
+            icon = android.R.drawable.ic_dialog_alert;
+        } else if (AlertRule.UMBRELLA_ID.equals(rule.getId())) {
+            channelId = "umbrella_alerts";
+            title = "☔ Don't Forget Your Umbrella!";
+            text = String.format("Rain expected around %s in %s",
+                    formatHour(ForecastWindows.localHour(series.getDt(match.getFirstIndex()), utcOffset)), cityName);
+            icon = android.R.drawable.ic_menu_compass;
+        } else {
+            channelId = "custom_alerts";
+            title = rule.getName();
+            AlertRule.Condition condition = rule.getConditions().get(0);
+            text = String.format("%s %.1f%s around %s in %s", label(condition.getMetric()), match.getPeakValue(),
+                    unit(condition.getMetric()),
+                    formatHour(ForecastWindows.localHour(series.getDt(match.getPeakIndex()), utcOffset)), cityName);
+            icon = android.R.drawable.ic_dialog_info;
+        }
+
+        Context context = getApplicationContext();
+        android.app.NotificationManager notificationManager =
+                (android.app.NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+
+        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.O) {
+            notificationManager.createNotificationChannel(channel(channelId));
+        }
+
+        androidx.core.app.NotificationCompat.Builder builder = new androidx.core.app.NotificationCompat.Builder(context, channelId)
+                .setSmallIcon(icon)
+                .setContentTitle(title)
+                .setContentText(text)
+                .setPriority(AlertRule.FREEZE_ID.equals(rule.getId())
+                        ? androidx.core.app.NotificationCompat.PRIORITY_HIGH
+                        : androidx.core.app.NotificationCompat.PRIORITY_DEFAULT)
+                .setAutoCancel(true);
+
+        // One notification per rule and location, so a retried run replaces rather than repeats it
+        notificationManager.notify((rule.getId() + "_" + location.getId()).hashCode(), builder.build());
+        Log.d(TAG, rule.getName() + " alert sent for " + location.getId() + ": " + text);
+    }
+
+    private static android.app.NotificationChannel channel(String channelId) {
+        android.app.NotificationChannel channel;
+        switch (channelId) {
+            case "freeze_alerts":
+                channel = new android.app.NotificationChannel(channelId, "Freeze Alerts",
+                        android.app.NotificationManager.IMPORTANCE_HIGH);
+                channel.setDescription("Alerts for freezing temperatures overnight");
+                break;
+            case "umbrella_alerts":
+                channel = new android.app.NotificationChannel(channelId, "Umbrella Alerts",
+                        android.app.NotificationManager.IMPORTANCE_DEFAULT);
+                channel.setDescription("Alerts for rainy weather");
+                break;
+            case "alert_checks":
+                channel = new android.app.NotificationChannel(channelId, "Alert Checks",
+                        android.app.NotificationManager.IMPORTANCE_LOW);
+                channel.setDescription("Shown briefly on older Android versions while alerts are checked");
+                break;
+            default:
+                channel = new android.app.NotificationChannel(channelId, "Custom Alerts",
+                        android.app.NotificationManager.IMPORTANCE_DEFAULT);
+                channel.setDescription("Alerts from your own rules");
+        }
+        return channel;
+    }
+
+    private static String formatHour(int hour) {
+        return String.format("%d%s", hour == 0 || hour == 12 ? 12 : hour % 12, hour < 12 ? "AM" : "PM");
+    }
+
+    private static String label(AlertRule.Metric metric) {
+        switch (metric) {
+            case TEMP:
+                return "Temperature";
+            case FEELS_LIKE:
+                return "Feels like";
+            case HUMIDITY:
+                return "Humidity";
+            case WIND_SPEED:
+                return "Wind";
+            case POP_PERCENT:
+                return "Chance of rain";
+            case RAIN_MM:
+                return "Rain";
+            default:
+                return "Snow";
+        }
+    }
+
+    private static String unit(AlertRule.Metric metric) {
+        switch (metric) {
+            case TEMP:
+            case FEELS_LIKE:
+                return "°F";
+            case HUMIDITY:
+            case POP_PERCENT:
+                return "%";
+            case WIND_SPEED:
+                return " mph";
+            default:
+                return " mm";
+        }
+    }
+}
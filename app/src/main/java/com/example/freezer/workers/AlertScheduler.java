@@ -0,0 +1,168 @@
+package com.example.freezer.workers;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.OutOfQuotaPolicy;
+import androidx.work.WorkManager;
+
+import com.example.freezer.model.AlertRule;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers the daily alert checks at a wall-clock time. Each {@link AlertRule.Check} with
+ * an enabled rule is a single alarm for its next occurrence; when it fires,
+ * {@link AlertAlarmReceiver} starts {@link AlertCheckWorker} and sets the following day's
+ * alarm from the clock again, so timing never drifts. Exact alarms are used when the app
+ * may set them. Otherwise the alarm is inexact but still allowed while idle, so Doze can't
+ * hold it until the next maintenance window; the system may still deliver it late, by an
+ * amount it doesn't bound, and {@code AlertDeliveryLog} records how late.
+ */
+public final class AlertScheduler {
+    private static final String TAG = "AlertScheduler";
+
+    static final String ACTION_ALERT_DUE = "com.example.freezer.action.ALERT_DUE";
+    static final String KEY_CHECK = "check";
+    static final String KEY_SCHEDULED_AT = "scheduled_at";
+    static final String KEY_FIRED_AT = "fired_at";
+    static final String KEY_ATTEMPT = "attempt";
+    // Doubles with each follow-up attempt
+    static final long RETRY_DELAY_SECONDS = 30;
+
+    private AlertScheduler() {
+    }
+
+    // Arms each check that has an enabled rule and cancels the rest; safe to call repeatedly
+    public static void sync(Context context, List<AlertRule> rules) {
+        for (AlertRule.Check check : AlertRule.Check.values()) {
+            if (hasEnabledRule(rules, check)) {
+                schedule(context, check);
+            } else {
+                cancel(context, check);
+            }
+        }
+    }
+
+    // Sets the alarm for the next occurrence; calling again just moves it to the same time
+    public static void schedule(Context context, AlertRule.Check check) {
+        schedule(context, check, System.currentTimeMillis());
+    }
+
+    public static void cancel(Context context, AlertRule.Check check) {
+        alarmManager(context).cancel(pendingIntent(context, check, 0));
+        WorkManager.getInstance(context).cancelUniqueWork(workName(check));
+        WorkManager.getInstance(context).cancelUniqueWork(legacyPeriodicWorkName(check));
+    }
+
+    // After firing, schedules from just past the target so a slightly early alarm can't repeat today
+    static void schedule(Context context, AlertRule.Check check, long afterMillis) {
+        WorkManager.getInstance(context).cancelUniqueWork(legacyPeriodicWorkName(check));
+
+        long triggerAt = nextOccurrence(afterMillis, check.getHourOfDay());
+        AlarmManager alarmManager = alarmManager(context);
+        PendingIntent operation = pendingIntent(context, check, triggerAt);
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms()) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAt, operation);
+            Log.d(TAG, check + " alarm set for " + triggerAt + " (exact)");
+        } else {
+            // setWindow is not allowed while idle and would wait for Doze to end
+            alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAt, operation);
+            Log.d(TAG, check + " alarm set for " + triggerAt + " (inexact)");
+        }
+    }
+
+    /**
+     * Starts the check now. It has no constraints, so a fresh snapshot can still alert
+     * while offline, and is expedited so WorkManager doesn't defer what the alarm timed.
+     */
+    static void runCheck(Context context, AlertRule.Check check, long scheduledAt, long firedAt) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(AlertCheckWorker.class)
+                .setInputData(checkData(check, scheduledAt, firedAt, 0))
+                .setExpedited(OutOfQuotaPolicy.RUN_AS_NON_EXPEDITED_WORK_REQUEST)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(workName(check), ExistingWorkPolicy.REPLACE, request);
+    }
+
+    /**
+     * Follow-up for a check whose fetches failed. It waits for a network, so an offline
+     * device isn't woken just to fail again, and runs after the current attempt finishes.
+     */
+    static void retryCheck(Context context, AlertRule.Check check, long scheduledAt, long firedAt, int attempt) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(AlertCheckWorker.class)
+                .setInputData(checkData(check, scheduledAt, firedAt, attempt))
+                .setInitialDelay(RETRY_DELAY_SECONDS << (attempt - 1), TimeUnit.SECONDS)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(workName(check),
+                ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+
+    private static Data checkData(AlertRule.Check check, long scheduledAt, long firedAt, int attempt) {
+        return new Data.Builder()
+                .putString(KEY_CHECK, check.name())
+                .putLong(KEY_SCHEDULED_AT, scheduledAt)
+                .putLong(KEY_FIRED_AT, firedAt)
+                .putInt(KEY_ATTEMPT, attempt)
+                .build();
+    }
+
+    // Next time the device clock reads hourOfDay:00 strictly after afterMillis
+    static long nextOccurrence(long afterMillis, int hourOfDay) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(afterMillis);
+        calendar.set(Calendar.HOUR_OF_DAY, hourOfDay);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        if (calendar.getTimeInMillis() <= afterMillis) {
+            calendar.add(Calendar.DAY_OF_YEAR, 1);
+        }
+        return calendar.getTimeInMillis();
+    }
+
+    private static boolean hasEnabledRule(List<AlertRule> rules, AlertRule.Check check) {
+        for (AlertRule rule : rules) {
+            if (rule.isEnabled() && rule.getCheck() == check) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String workName(AlertRule.Check check) {
+        return check == AlertRule.Check.EVENING ? "eveningAlertCheck" : "morningAlertCheck";
+    }
+
+    // Periodic work the alarms replaced; cancelled so it can't run alongside
+    private static String legacyPeriodicWorkName(AlertRule.Check check) {
+        return check == AlertRule.Check.EVENING ? "dailyEveningFreezeCheck" : "morningUmbrellaCheck";
+    }
+
+    private static PendingIntent pendingIntent(Context context, AlertRule.Check check, long triggerAt) {
+        Intent intent = new Intent(context, AlertAlarmReceiver.class)
+                .setAction(ACTION_ALERT_DUE)
+                .putExtra(KEY_CHECK, check.name())
+                .putExtra(KEY_SCHEDULED_AT, triggerAt);
+        return PendingIntent.getBroadcast(context, check.ordinal(), intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private static AlarmManager alarmManager(Context context) {
+        return (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.freezer.workers;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.model.SavedLocation;
+import com.example.freezer.model.Settings;
+import com.example.freezer.repository.AlertRuleStore;
+import com.example.freezer.repository.LocationRefreshPipeline;
+import com.example.freezer.repository.RefreshPolicy;
+import com.example.freezer.repository.SavedLocationStore;
+import com.example.freezer.repository.SettingsStore;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps every location's snapshot fresh between alert checks. Each run refreshes what
+ * {@link RefreshPolicy} says is due, then schedules the next run for the earliest time
+ * any location will be due again, so borderline nights get frequent fetches and calm
+ * weather gets one per check. The chain stops while all alerts are off.
+ */
+public class ForecastRefreshWorker extends Worker {
+    private static final String TAG = "RefreshWorker";
+    private static final String WORK_NAME = "adaptiveForecastRefresh";
+
+    public ForecastRefreshWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    // Restarts the chain from a fresh fetch or an alert being switched on, replacing any pending run
+    public static void schedule(Context context, long nextRefreshAtMillis) {
+        enqueue(context, nextRefreshAtMillis, ExistingWorkPolicy.REPLACE);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        long startedAt = SystemClock.elapsedRealtime();
+        Settings settings = SettingsStore.getInstance(getApplicationContext()).get();
+        List<AlertRule> rules = AlertRuleStore.getEnabled(settings);
+        if (rules.isEmpty()) {
+            Log.d(TAG, "Alerts disabled, stopping refresh chain");
+            return Result.success();
+        }
+
+        List<SavedLocation> locations = SavedLocationStore.getInstance(getApplicationContext()).getAll();
+        if (locations.isEmpty()) {
+            return Result.success();
+        }
+
+        // Fresh snapshots are reused, so only locations that are due hit the network
+        List<LocationRefreshPipeline.Result> results = new LocationRefreshPipeline(getApplicationContext())
+                .refreshAll(locations, SavedLocation.CURRENT_ID, AlertCheckWorker.FETCH_DEADLINE_MILLIS);
+
+        long nextRefreshAt = Long.MAX_VALUE;
+        int failures = 0;
+        for (LocationRefreshPipeline.Result result : results) {
+            if (result.isSuccess()) {
+                nextRefreshAt = Math.min(nextRefreshAt, RefreshPolicy.nextRefreshAtMillis(result.getSnapshot(), rules));
+            } else {
+                failures++;
+            }
+        }
+
+        if (failures > 0 && getRunAttemptCount() + 1 < AlertCheckWorker.MAX_ATTEMPTS) {
+            Log.e(TAG, failures + " of " + results.size() + " locations failed, retrying");
+            return Result.retry();
+        }
+        if (nextRefreshAt == Long.MAX_VALUE) {
+            // Nothing succeeded; try again after the next model run
+            nextRefreshAt = System.currentTimeMillis() + RefreshPolicy.MODEL_UPDATE_INTERVAL_MILLIS;
+        }
+
+        // Appending lets this run finish before the next one starts its delay
+        enqueue(getApplicationContext(), nextRefreshAt, ExistingWorkPolicy.APPEND_OR_REPLACE);
+        Log.d(TAG, "Refreshed " + (results.size() - failures) + "/" + results.size() + " locations in "
+                + (SystemClock.elapsedRealtime() - startedAt) + " ms, next run in "
+                + TimeUnit.MILLISECONDS.toMinutes(nextRefreshAt - System.currentTimeMillis()) + " min");
+        // Failing here would also fail the appended run, so out-of-retries errors stop at the log
+        return Result.success();
+    }
+
+    private static void enqueue(Context context, long runAtMillis, ExistingWorkPolicy policy) {
+        long delay = Math.max(0, runAtMillis - System.currentTimeMillis());
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(ForecastRefreshWorker.class)
+                .setInitialDelay(delay, TimeUnit.MILLISECONDS)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .setRequiresBatteryNotLow(true)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, policy, request);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.freezer;
+
+import android.content.SharedPreferences;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * In-memory SharedPreferences. Reads can be held back with {@link #blockReads} to mimic
+ * a slow first load, and {@link #commits} counts writes.
+ */
+public class FakeSharedPreferences implements SharedPreferences {
+    public final Map<String, Object> values = new HashMap<>();
+    public volatile CountDownLatch blockReads;
+    public int commits;
+
+    private Object read(String key) {
+        if (blockReads != null) {
+            try {
+                blockReads.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            return values.get(key);
+        }
+    }
+
+    @Override public Map<String, ?> getAll() { return values; }
+    @Override public String getString(String key, String defValue) {
+        Object value = read(key);
+        return value != null ? (String) value : defValue;
+    }
+    @Override public Set<String> getStringSet(String key, Set<String> defValues) { return defValues; }
+    @Override public int getInt(String key, int defValue) {
+        Object value = read(key);
+        return value != null ? (Integer) value : defValue;
+    }
+    @Override public long getLong(String key, long defValue) {
+        Object value = read(key);
+        return value != null ? (Long) value : defValue;
+    }
+    @Override public float getFloat(String key, float defValue) {
+        Object value = read(key);
+        return value != null ? (Float) value : defValue;
+    }
+    @Override public boolean getBoolean(String key, boolean defValue) {
+        Object value = read(key);
+        return value != null ? (Boolean) value : defValue;
+    }
+    @Override public synchronized boolean contains(String key) { return values.containsKey(key); }
+    @Override public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) { }
+    @Override public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) { }
+
+    @Override
+    public Editor edit() {
+        Map<String, Object> pending = new HashMap<>();
+        return new Editor() {
+            @Override public Editor putString(String key, String value) { pending.put(key, value); return this; }
+            @Override public Editor putStringSet(String key, Set<String> value) { pending.put(key, value); return this; }
+            @Override public Editor putInt(String key, int value) { pending.put(key, value); return this; }
+            @Override public Editor putLong(String key, long value) { pending.put(key, value); return this; }
+            @Override public Editor putFloat(String key, float value) { pending.put(key, value); return this; }
+            @Override public Editor putBoolean(String key, boolean value) { pending.put(key, value); return this; }
+            @Override public Editor remove(String key) { pending.put(key, null); return this; }
+            @Override public Editor clear() { values.clear(); return this; }
+            @Override public boolean commit() {
+                synchronized (FakeSharedPreferences.this) {
+                    values.putAll(pending);
+                    commits++;
+                }
+                return true;
+            }
+            @Override public void apply() { commit(); }
+        };
+    }
+}
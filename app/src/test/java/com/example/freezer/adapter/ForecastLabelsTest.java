@@ -0,0 +1,72 @@
+package com.example.freezer.adapter;
+
+import com.example.freezer.model.ForecastSeries;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ForecastLabelsTest {
+    // 2025-10-18 18:00 UTC
+    private static final long BASE = 1760810400L;
+    private static final int SEATTLE = -7 * 3600;
+
+    @Test
+    public void build_formatsRowsInCityTime() {
+        ForecastSeries series = new ForecastSeries.Builder(3)
+                .add(BASE, 38.4f, 35f, 60, 0f, 0f, 0f, 0f, "Clear", "clear sky", "01d")
+                .add(BASE + 3 * 3600, 31.6f, 28f, 70, 0.34f, 0.9f, 0f, 0f, "Rain", "light rain", "10d")
+                .add(BASE + 6 * 3600, 30f, 27f, 80, 1f, 0.2f, 0.35f, 0f, null, null, null)
+                .build();
+
+        ForecastLabels labels = ForecastLabels.build(series, 0, 3, SEATTLE);
+
+        assertEquals(3, labels.size());
+        assertEquals(BASE, labels.getId(0));
+        assertEquals("11AM", labels.getTime(0));
+        assertEquals("2PM", labels.getTime(1));
+        assertEquals("38°F", labels.getTemp(0));
+        assertEquals("32°F", labels.getTemp(1));
+        assertEquals("Clear", labels.getCondition(0));
+        assertEquals("", labels.getCondition(2));
+        assertEquals("", labels.getPrecip(0));
+        assertEquals("34% ☔", labels.getPrecip(1));
+        assertEquals("100% ☔❄️", labels.getPrecip(2));
+    }
+
+    @Test
+    public void build_reusesCachedLabelInstances() {
+        ForecastSeries series = new ForecastSeries.Builder(2)
+                .add(BASE, 50.2f, 50f, 60, 0.5f, 0f, 0f, 0f, "Clouds", "overcast", "04d")
+                .add(BASE + 24 * 3600, 49.9f, 50f, 60, 0.5f, 0f, 0f, 0f, "Clouds", "overcast", "04d")
+                .build();
+
+        ForecastLabels labels = ForecastLabels.build(series, 0, 2, 0);
+
+        assertSame(labels.getTime(0), labels.getTime(1));
+        assertSame(labels.getTemp(0), labels.getTemp(1));
+        assertSame(labels.getPrecip(0), labels.getPrecip(1));
+        assertTrue(labels.sameContents(0, labels, 1));
+    }
+
+    @Test
+    public void build_startsAtRequestedSlot() {
+        ForecastSeries series = new ForecastSeries.Builder(3)
+                .add(BASE, 40f, 40f, 60, 0f, 0f, 0f, 0f, "Clear", "clear sky", "01d")
+                .add(BASE + 3 * 3600, 41f, 41f, 60, 0f, 0f, 0f, 0f, "Clear", "clear sky", "01d")
+                .add(BASE + 6 * 3600, 42f, 42f, 60, 0f, 0f, 0f, 0f, "Clear", "clear sky", "01d")
+                .build();
+
+        ForecastLabels labels = ForecastLabels.build(series, 1, 2, 0);
+
+        assertEquals(2, labels.size());
+        assertEquals(BASE + 3 * 3600, labels.getId(0));
+        assertEquals("42°F", labels.getTemp(1));
+    }
+
+    @Test
+    public void temperatureLabel_handlesValuesOutsideTable() {
+        assertEquals("-100°F", ForecastLabels.temperatureLabel(-100f));
+        assertEquals("0°F", ForecastLabels.temperatureLabel(-0.4f));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.freezer.api;
+
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ForecastJsonDecoderTest {
+
+    private ForecastResponse decodeFixture() throws IOException {
+        try (Reader reader = new InputStreamReader(
+                getClass().getClassLoader().getResourceAsStream("fixtures/forecast_40.json"),
+                StandardCharsets.UTF_8)) {
+            return ForecastJsonDecoder.decode(reader);
+        }
+    }
+
+    @Test
+    public void decode_bindsReadFieldsAndSkipsTheRest() throws IOException {
+        ForecastResponse response = decodeFixture();
+
+        ForecastSeries series = response.getSeries();
+        assertEquals(40, series.size());
+        assertEquals("Seattle", response.getCity().getName());
+        assertEquals("US", response.getCity().getCountry());
+        assertEquals(Integer.valueOf(-25200), response.getCity().getTimezone());
+
+        assertEquals(1760810400L, series.getDt(0));
+        assertEquals(38.0, series.getTemp(0), 0.001);
+        assertEquals(34.6, series.getFeelsLike(0), 0.001);
+        assertEquals(60, series.getHumidity(0));
+        assertEquals(3.0, series.getWindSpeed(0), 0.001);
+        assertEquals("Clear", series.getConditionMain(0));
+        assertEquals(0, series.getRain3h(0), 0.0);
+    }
+
+    @Test
+    public void decode_readsThreeHourPrecipitationKeys() throws IOException {
+        ForecastResponse response = decodeFixture();
+
+        ForecastSeries series = response.getSeries();
+        assertEquals(0.92, series.getRain3h(2), 0.001);
+        assertEquals("light rain", series.getConditionDescription(2));
+        assertEquals(0.34, series.getPop(2), 0.001);
+
+        assertEquals(0.35, series.getSnow3h(30), 0.001);
+    }
+
+    @Test
+    public void decode_internsRepeatedConditions() throws IOException {
+        ForecastSeries series = decodeFixture().getSeries();
+
+        assertEquals(series.getConditionCode(2), series.getConditionCode(7));
+        assertSame(series.getConditionDescription(2), series.getConditionDescription(7));
+        assertNotEquals(series.getConditionCode(0), series.getConditionCode(2));
+    }
+
+    @Test
+    public void decode_toleratesNullAndMissingSections() throws IOException {
+        ForecastResponse response = ForecastJsonDecoder.decode(new StringReader(
+                "{\"cod\":\"200\",\"list\":[{\"dt\":1,\"main\":null,\"weather\":[]}],\"city\":null}"));
+
+        assertEquals(1, response.getSeries().size());
+        assertEquals(0, response.getSeries().getTemp(0), 0.0);
+        assertFalse(response.getSeries().hasCondition(0));
+        assertNull(response.getCity());
+    }
+
+    @Test
+    public void encode_roundTripsThroughDecoder() throws IOException {
+        ForecastResponse original = decodeFixture();
+
+        StringWriter out = new StringWriter();
+        ForecastJsonEncoder.encode(new JsonWriter(out), original);
+        ForecastResponse copy = ForecastJsonDecoder.decode(new JsonReader(new StringReader(out.toString())));
+
+        ForecastSeries a = original.getSeries();
+        ForecastSeries b = copy.getSeries();
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.getDt(i), b.getDt(i));
+            assertEquals(a.getTemp(i), b.getTemp(i), 0.0f);
+            assertEquals(a.getPop(i), b.getPop(i), 0.0f);
+            assertEquals(a.getRain3h(i), b.getRain3h(i), 0.0f);
+            assertEquals(a.getSnow3h(i), b.getSnow3h(i), 0.0f);
+            assertEquals(a.getWindSpeed(i), b.getWindSpeed(i), 0.0f);
+            assertEquals(a.getConditionMain(i), b.getConditionMain(i));
+        }
+        assertEquals(original.getCity().getName(), copy.getCity().getName());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.freezer.api;
+
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link ForecastResponse} back out in the /forecast wire shape, limited to the
+ * fields {@link ForecastJsonDecoder} binds, for round-trip tests and legacy snapshot files.
+ */
+public final class ForecastJsonEncoder {
+
+    private ForecastJsonEncoder() {
+    }
+
+    public static void encode(JsonWriter writer, ForecastResponse response) throws IOException {
+        writer.beginObject();
+
+        ForecastSeries series = response.getSeries();
+        writer.name("list").beginArray();
+        for (int i = 0; i < series.size(); i++) {
+            writeSlot(writer, series, i);
+        }
+        writer.endArray();
+
+        ForecastResponse.City city = response.getCity();
+        if (city != null) {
+            writer.name("city").beginObject();
+            writer.name("name").value(city.getName());
+            writer.name("country").value(city.getCountry());
+            if (city.getTimezone() != null) {
+                writer.name("timezone").value(city.getTimezone());
+            }
+            writer.endObject();
+        }
+
+        writer.endObject();
+    }
+
+    private static void writeSlot(JsonWriter writer, ForecastSeries series, int i) throws IOException {
+        writer.beginObject();
+        writer.name("dt").value(series.getDt(i));
+
+        writer.name("main").beginObject();
+        writer.name("temp").value(series.getTemp(i));
+        writer.name("feels_like").value(series.getFeelsLike(i));
+        writer.name("humidity").value(series.getHumidity(i));
+        writer.endObject();
+
+        if (series.hasCondition(i)) {
+            writer.name("weather").beginArray().beginObject();
+            writer.name("main").value(series.getConditionMain(i));
+            writer.name("description").value(series.getConditionDescription(i));
+            writer.name("icon").value(series.getConditionIcon(i));
+            writer.endObject().endArray();
+        }
+
+        if (series.getRain3h(i) > 0) {
+            writer.name("rain").beginObject().name("3h").value(series.getRain3h(i)).endObject();
+        }
+        if (series.getSnow3h(i) > 0) {
+            writer.name("snow").beginObject().name("3h").value(series.getSnow3h(i)).endObject();
+        }
+
+        writer.name("wind").beginObject().name("speed").value(series.getWindSpeed(i)).endObject();
+        writer.name("pop").value(series.getPop(i));
+        writer.endObject();
+    }
+}
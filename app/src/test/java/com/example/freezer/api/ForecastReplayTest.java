@@ -0,0 +1,228 @@
+package com.example.freezer.api;
+
+import com.example.freezer.adapter.ForecastLabels;
+import com.example.freezer.model.AlertEngine;
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * End-to-end timings of fetch → parse → UI labels → alert analysis through the production
+ * HTTP stack, against recorded payloads with injected faults. The recorded city's own
+ * coordinates stand in for the location fix, which needs a device. The label and alert
+ * stages call ForecastLabels and AlertEngine directly rather than through the adapter or
+ * the worker; WorkerReplayTest covers the worker's refresh pipeline. Each scenario's
+ * p50/p95 go to {@link #REPORT} rather than the test output.
+ */
+public class ForecastReplayTest {
+    private static final double LAT = 47.6062;
+    private static final double LON = -122.3321;
+    private static final String KEY = "replay";
+    // Rows updateUI hands the adapter
+    private static final int VISIBLE_SLOTS = 9;
+    // Relative to the module directory Gradle runs tests from
+    private static final File REPORT = new File("build/reports/replay/timings.txt");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final CacheStats cacheStats = new CacheStats();
+    private final NetworkMetrics networkMetrics = new NetworkMetrics();
+    // Roomy enough that only the faults under test trip it
+    private final RequestBudget budget = new RequestBudget(1000, 1000, 3,
+            TimeUnit.MINUTES.toMillis(1), System::currentTimeMillis);
+    private final AlertEngine engine = AlertEngine.compile(Arrays.asList(
+            AlertRule.freeze(true), AlertRule.umbrella(true)));
+
+    private ReplayServer server;
+    private Cache cache;
+    private WeatherAPI api;
+
+    // Milliseconds spent in each stage of one replayed refresh
+    private static final class Timing {
+        long fetch;
+        long render;
+        long analysis;
+        ForecastResponse forecast;
+
+        long total() { return fetch + render + analysis; }
+    }
+
+    @BeforeClass
+    public static void clearReport() throws IOException {
+        Files.createDirectories(REPORT.getParentFile().toPath());
+        Files.write(REPORT.toPath(), new byte[0]);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ReplayServer("forecast_40.json");
+        server.start();
+        cache = new Cache(folder.newFolder("http_cache"), 5 * 1024 * 1024);
+        api = RetrofitClient.createApi(
+                RetrofitClient.newClientBuilder(cache, cacheStats, networkMetrics, budget).build(),
+                server.baseUrl().toString());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        cache.close();
+    }
+
+    private Timing replay() throws IOException {
+        Timing timing = new Timing();
+        long start = System.nanoTime();
+        // The converter decodes as the body streams in, so fetch includes parsing
+        Response<ForecastResponse> response = api.getForecastByCoords(LAT, LON, KEY, "imperial").execute();
+        long fetched = System.nanoTime();
+        assertTrue("HTTP " + response.code(), response.isSuccessful());
+        timing.forecast = response.body();
+
+        ForecastSeries series = timing.forecast.getSeries();
+        // Replay at the recorded time, so the current slot and alert windows line up
+        long now = series.getDt(0);
+        int utcOffset = timing.forecast.getUtcOffsetSeconds(now);
+        ForecastLabels labels = ForecastLabels.build(series, 0, Math.min(VISIBLE_SLOTS, series.size()), utcOffset);
+        long rendered = System.nanoTime();
+
+        engine.evaluate(series, now, utcOffset);
+        long analyzed = System.nanoTime();
+
+        assertEquals(Math.min(VISIBLE_SLOTS, series.size()), labels.size());
+        timing.fetch = TimeUnit.NANOSECONDS.toMillis(fetched - start);
+        timing.render = TimeUnit.NANOSECONDS.toMillis(rendered - fetched);
+        timing.analysis = TimeUnit.NANOSECONDS.toMillis(analyzed - rendered);
+        return timing;
+    }
+
+    private void report(String scenario, Timing... runs) throws IOException {
+        long[] fetch = new long[runs.length];
+        long[] render = new long[runs.length];
+        long[] analysis = new long[runs.length];
+        long[] total = new long[runs.length];
+        for (int i = 0; i < runs.length; i++) {
+            fetch[i] = runs[i].fetch;
+            render[i] = runs[i].render;
+            analysis[i] = runs[i].analysis;
+            total[i] = runs[i].total();
+        }
+        String line = scenario + " (" + runs.length + " runs): total " + percentiles(total)
+                + ", fetch+parse " + percentiles(fetch) + ", render " + percentiles(render)
+                + ", analysis " + percentiles(analysis) + "; " + networkMetrics.summary();
+        Files.write(REPORT.toPath(), Collections.singletonList(line), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String percentiles(long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return "p50=" + sorted[(sorted.length - 1) / 2] + "ms p95="
+                + sorted[(int) Math.ceil(0.95 * sorted.length) - 1] + "ms";
+    }
+
+    @Test
+    public void cleanReplay_reportsStageTimings() throws IOException {
+        Timing[] runs = new Timing[20];
+        for (int i = 0; i < runs.length; i++) {
+            // Every run goes to the server rather than the HTTP cache
+            cache.evictAll();
+            runs[i] = replay();
+        }
+        report("clean", runs);
+
+        assertEquals(40, runs[0].forecast.getSeries().size());
+        assertEquals(runs.length, server.getRequestCount());
+        assertEquals(runs.length, networkMetrics.getSampleCount());
+    }
+
+    @Test
+    public void latency_addsToFetchTime() throws IOException {
+        server.setDefault(ReplayServer.Fault.none().latency(300));
+
+        Timing timing = replay();
+        report("latency 300ms", timing);
+
+        assertTrue("fetch took " + timing.fetch + " ms", timing.fetch >= 300);
+    }
+
+    @Test
+    public void bandwidthCap_stretchesBodyRead() throws IOException {
+        int bytesPerSecond = 64 * 1024;
+        server.setDefault(ReplayServer.Fault.none().bandwidth(bytesPerSecond));
+
+        Timing timing = replay();
+        report("64KB/s", timing);
+
+        // The last partial period may land before its pause
+        long minMillis = TimeUnit.SECONDS.toMillis(server.getPayloadBytes()) / bytesPerSecond - 100;
+        assertTrue("fetch took " + timing.fetch + " ms", timing.fetch >= minMillis);
+        assertEquals(40, timing.forecast.getSeries().size());
+    }
+
+    @Test
+    public void truncatedBody_failsFetchAndIsNotCached() throws IOException {
+        server.enqueue(ReplayServer.Fault.none().truncateAt(0.5));
+
+        try {
+            replay();
+            fail("Expected a truncated body to fail");
+        } catch (IOException expected) {
+            // The body breaks after the interceptors have returned, so no stale fallback applies
+        }
+        assertEquals(0, cacheStats.getStaleFallbackCount());
+
+        Timing retry = replay();
+        assertEquals(40, retry.forecast.getSeries().size());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void serverError_servesStaleCachedForecast() throws IOException {
+        // Stored but immediately stale, so the next refresh goes back to the server
+        server.enqueue(ReplayServer.Fault.none().cacheControl("max-age=0"));
+        server.enqueue(ReplayServer.Fault.none().status(503, null).latency(200));
+        replay();
+
+        Timing timing = replay();
+        report("503 with stale cache", timing);
+
+        assertEquals(40, timing.forecast.getSeries().size());
+        assertEquals(1, cacheStats.getStaleFallbackCount());
+        assertEquals(1, budget.getFailureCount());
+    }
+
+    @Test
+    public void rateLimited_withoutCache_surfacesRetryAfter() throws IOException {
+        server.enqueue(ReplayServer.Fault.none().status(429, "30"));
+
+        try {
+            replay();
+            fail("Expected ThrottledException");
+        } catch (ThrottledException e) {
+            assertEquals(TimeUnit.SECONDS.toMillis(30), e.getRetryAfterMillis());
+        }
+        assertEquals(1, budget.getRateLimitedCount());
+    }
+}
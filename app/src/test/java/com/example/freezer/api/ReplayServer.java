@@ -0,0 +1,179 @@
+package com.example.freezer.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+
+/**
+ * Local stand-in for OpenWeatherMap that replays a recorded /forecast fixture. Each
+ * response can carry a {@link Fault}: latency before the headers, a bandwidth cap on the
+ * body, a body cut off partway through, or an error status. Public so replays of the
+ * repository's worker path can run against it too.
+ */
+public final class ReplayServer {
+    private final MockWebServer server = new MockWebServer();
+    private final byte[] payload;
+    // Guarded by this; faults for the next requests, in order, before falling back to the default
+    private final Queue<Fault> queued = new ArrayDeque<>();
+    private Fault defaultFault = Fault.none();
+
+    static final class Fault {
+        private final long latencyMillis;
+        private final int bytesPerSecond;
+        private final double truncateAt;
+        private final int code;
+        private final String cacheControl;
+        private final String retryAfter;
+
+        private Fault(long latencyMillis, int bytesPerSecond, double truncateAt, int code,
+                      String cacheControl, String retryAfter) {
+            this.latencyMillis = latencyMillis;
+            this.bytesPerSecond = bytesPerSecond;
+            this.truncateAt = truncateAt;
+            this.code = code;
+            this.cacheControl = cacheControl;
+            this.retryAfter = retryAfter;
+        }
+
+        static Fault none() {
+            return new Fault(0, 0, 1, 200, null, null);
+        }
+
+        // Time to first byte
+        Fault latency(long millis) {
+            return new Fault(millis, bytesPerSecond, truncateAt, code, cacheControl, retryAfter);
+        }
+
+        Fault bandwidth(int bytesPerSecond) {
+            return new Fault(latencyMillis, bytesPerSecond, truncateAt, code, cacheControl, retryAfter);
+        }
+
+        // Sends this fraction of the body against the full Content-Length, then hangs up
+        Fault truncateAt(double fraction) {
+            return new Fault(latencyMillis, bytesPerSecond, fraction, code, cacheControl, retryAfter);
+        }
+
+        Fault status(int code, String retryAfter) {
+            return new Fault(latencyMillis, bytesPerSecond, truncateAt, code, cacheControl, retryAfter);
+        }
+
+        Fault cacheControl(String value) {
+            return new Fault(latencyMillis, bytesPerSecond, truncateAt, code, value, retryAfter);
+        }
+    }
+
+    public ReplayServer(String fixture) throws IOException {
+        payload = readFixture(fixture);
+    }
+
+    public void start() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath() == null || !request.getPath().startsWith("/data/2.5/forecast")) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                return respond(nextFault());
+            }
+        });
+        server.start();
+    }
+
+    public void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    HttpUrl baseUrl() {
+        return server.url("/data/2.5/");
+    }
+
+    public int getRequestCount() {
+        return server.getRequestCount();
+    }
+
+    // The production interceptor chain pointed at this server, with a budget only faults can trip
+    public WeatherAPI createApi(Cache cache, NetworkMetrics metrics) {
+        RequestBudget budget = new RequestBudget(1000, 1000, 3,
+                TimeUnit.MINUTES.toMillis(1), System::currentTimeMillis);
+        return RetrofitClient.createApi(
+                RetrofitClient.newClientBuilder(cache, new CacheStats(), metrics, budget).build(),
+                baseUrl().toString());
+    }
+
+    int getPayloadBytes() {
+        return payload.length;
+    }
+
+    synchronized void setDefault(Fault fault) {
+        defaultFault = fault;
+    }
+
+    synchronized void enqueue(Fault fault) {
+        queued.add(fault);
+    }
+
+    private synchronized Fault nextFault() {
+        Fault fault = queued.poll();
+        return fault != null ? fault : defaultFault;
+    }
+
+    private MockResponse respond(Fault fault) {
+        MockResponse response = new MockResponse()
+                .setResponseCode(fault.code)
+                .setHeader("Content-Type", "application/json; charset=utf-8");
+        if (fault.code != 200) {
+            response.setBody("{\"cod\":" + fault.code + ",\"message\":\"replayed error\"}");
+            if (fault.retryAfter != null) {
+                response.setHeader("Retry-After", fault.retryAfter);
+            }
+        } else if (fault.truncateAt < 1) {
+            int length = (int) (payload.length * fault.truncateAt);
+            response.setBody(new Buffer().write(Arrays.copyOf(payload, length)));
+            // Promise the whole payload, so the client sees the connection drop mid-body
+            response.setHeader("Content-Length", payload.length);
+            response.setSocketPolicy(SocketPolicy.DISCONNECT_AT_END);
+        } else {
+            response.setBody(new Buffer().write(payload));
+        }
+
+        if (fault.cacheControl != null) {
+            response.setHeader("Cache-Control", fault.cacheControl);
+        }
+        if (fault.latencyMillis > 0) {
+            response.setHeadersDelay(fault.latencyMillis, TimeUnit.MILLISECONDS);
+        }
+        if (fault.bytesPerSecond > 0) {
+            // Ten writes a second keeps the transfer smooth without a write per byte
+            response.throttleBody(Math.max(1, fault.bytesPerSecond / 10), 100, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private static byte[] readFixture(String fixture) throws IOException {
+        try (InputStream in = ReplayServer.class.getClassLoader().getResourceAsStream("fixtures/" + fixture)) {
+            if (in == null) {
+                throw new IOException("No fixture " + fixture);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.freezer.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+public class RequestBudgetInterceptorTest {
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private OkHttpClient client(RequestBudget budget) {
+        return new OkHttpClient.Builder()
+                .addNetworkInterceptor(new RequestBudgetInterceptor(budget))
+                .build();
+    }
+
+    private Response get(OkHttpClient client, String key) throws IOException {
+        return client.newCall(new Request.Builder()
+                .url(server.url("/data/2.5/forecast?lat=47.6&lon=-122.3&appid=" + key))
+                .build()).execute();
+    }
+
+    // Retry-after of the ThrottledException the request fails with
+    private long expectThrottled(OkHttpClient client, String key) {
+        try {
+            get(client, key).close();
+        } catch (ThrottledException e) {
+            return e.getRetryAfterMillis();
+        } catch (IOException e) {
+            fail("Expected ThrottledException but got " + e);
+        }
+        fail("Expected ThrottledException");
+        return -1;
+    }
+
+    @Test
+    public void emptyBucket_turnsRequestsAwayUntilItRefills() throws IOException {
+        // Two requests of burst, one more every 30 minutes
+        RequestBudget budget = new RequestBudget(2, 2, 3, 60_000, now::get);
+        OkHttpClient client = client(budget);
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody("{}"));
+        }
+
+        get(client, "key-a").close();
+        get(client, "key-a").close();
+        long retryAfter = expectThrottled(client, "key-a");
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(TimeUnit.MINUTES.toMillis(30), retryAfter);
+        // Each key has its own bucket
+        assertEquals(2, budget.getRemaining("key-b"));
+
+        now.addAndGet(retryAfter);
+        get(client, "key-a").close();
+        assertEquals(3, server.getRequestCount());
+        assertEquals(1, budget.getThrottledCount());
+    }
+
+    @Test
+    public void rateLimited_honorsRetryAfterWithoutTrippingTheBreaker() throws IOException {
+        RequestBudget budget = new RequestBudget(10, 60, 3, 60_000, now::get);
+        OkHttpClient client = client(budget);
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "30"));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        assertEquals(30_000, expectThrottled(client, "key"));
+        now.addAndGet(10_000);
+        assertEquals(20_000, expectThrottled(client, "key"));
+        assertEquals(1, server.getRequestCount());
+
+        now.addAndGet(20_000);
+        try (Response response = get(client, "key")) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(1, budget.getRateLimitedCount());
+        assertEquals(RequestBudget.BreakerState.CLOSED, budget.getBreakerState());
+    }
+
+    @Test
+    public void repeatedServerErrors_openBreakerUntilATrialSucceeds() throws IOException {
+        RequestBudget budget = new RequestBudget(10, 60, 3, 60_000, now::get);
+        OkHttpClient client = client(budget);
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        for (int i = 0; i < 3; i++) {
+            expectThrottled(client, "key");
+        }
+        assertEquals(RequestBudget.BreakerState.OPEN, budget.getBreakerState());
+
+        // Short-circuited without reaching the server
+        assertEquals(60_000, expectThrottled(client, "key"));
+        assertEquals(3, server.getRequestCount());
+        assertEquals(1, budget.getShortCircuitedCount());
+
+        now.addAndGet(60_000);
+        try (Response response = get(client, "key")) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(RequestBudget.BreakerState.CLOSED, budget.getBreakerState());
+        assertEquals(1, budget.getBreakerOpenCount());
+        assertEquals(3, budget.getFailureCount());
+    }
+
+    @Test
+    public void clientErrors_reachTheCallerButNeverCloseTheBreaker() throws IOException {
+        RequestBudget budget = new RequestBudget(10, 60, 3, 60_000, now::get);
+        OkHttpClient client = client(budget);
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(401));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            try (Response response = get(client, "revoked")) {
+                assertEquals(401, response.code());
+            }
+        }
+        assertEquals(RequestBudget.BreakerState.OPEN, budget.getBreakerState());
+        assertEquals(3, budget.getFailureCount());
+
+        // The trial gets a 401 too, so the breaker opens again instead of closing
+        now.addAndGet(60_000);
+        try (Response response = get(client, "revoked")) {
+            assertEquals(401, response.code());
+        }
+        assertEquals(RequestBudget.BreakerState.OPEN, budget.getBreakerState());
+        assertEquals(2, budget.getBreakerOpenCount());
+    }
+
+    // Starts a request the server holds, cancels it once it arrives, and returns what the caller saw
+    private IOException cancelInFlight(OkHttpClient client, String key) throws InterruptedException {
+        server.enqueue(new MockResponse().setBody("{}").setHeadersDelay(10, TimeUnit.SECONDS));
+        Call call = client.newCall(new Request.Builder()
+                .url(server.url("/data/2.5/forecast?lat=47.6&lon=-122.3&appid=" + key))
+                .build());
+        AtomicReference<IOException> error = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                call.execute().close();
+            } catch (IOException e) {
+                error.set(e);
+            }
+        });
+        caller.start();
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+        call.cancel();
+        caller.join(5_000);
+        return error.get();
+    }
+
+    @Test
+    public void cancelledCalls_areNotFailures_andFreeTheTrial() throws Exception {
+        RequestBudget budget = new RequestBudget(10, 60, 3, 60_000, now::get);
+        OkHttpClient client = client(budget);
+
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(cancelInFlight(client, "key"));
+        }
+        assertEquals(RequestBudget.BreakerState.CLOSED, budget.getBreakerState());
+        assertEquals(0, budget.getFailureCount());
+        assertEquals(3, budget.getCancelledCount());
+
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+            expectThrottled(client, "key");
+        }
+        now.addAndGet(60_000);
+        // A cancelled trial leaves the breaker half-open for the next request to try
+        assertNotNull(cancelInFlight(client, "key"));
+        assertEquals(RequestBudget.BreakerState.HALF_OPEN, budget.getBreakerState());
+
+        server.enqueue(new MockResponse().setBody("{}"));
+        try (Response response = get(client, "key")) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(RequestBudget.BreakerState.CLOSED, budget.getBreakerState());
+        assertEquals(3, budget.getFailureCount());
+    }
+
+    @Test
+    public void readTimeout_stillCountsAsAFailure() {
+        RequestBudget budget = new RequestBudget(10, 60, 3, 60_000, now::get);
+        OkHttpClient client = client(budget).newBuilder()
+                .readTimeout(200, TimeUnit.MILLISECONDS)
+                .build();
+        server.enqueue(new MockResponse().setBody("{}").setHeadersDelay(10, TimeUnit.SECONDS));
+
+        try {
+            get(client, "key").close();
+            fail("Expected the call to time out");
+        } catch (IOException expected) {
+        }
+        assertEquals(1, budget.getFailureCount());
+        assertEquals(0, budget.getCancelledCount());
+    }
+}
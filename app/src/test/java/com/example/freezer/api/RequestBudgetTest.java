@@ -0,0 +1,73 @@
+package com.example.freezer.api;
+
+import com.example.freezer.FakeSharedPreferences;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class RequestBudgetTest {
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final FakeSharedPreferences prefs = new FakeSharedPreferences();
+
+    private RequestBudget newBudget() {
+        return new RequestBudget(prefs, 3, 6, 3, 60_000, now::get);
+    }
+
+    @Test
+    public void spentTokens_surviveANewProcess() throws ThrottledException {
+        RequestBudget first = newBudget();
+        first.acquire("key");
+        first.acquire("key");
+
+        RequestBudget second = newBudget();
+        assertEquals(1, second.getRemaining("key"));
+        second.acquire("key");
+        try {
+            second.acquire("key");
+            fail("Expected the restored bucket to be empty");
+        } catch (ThrottledException expected) {
+            // One token every 10 minutes
+            assertEquals(600_000, expected.getRetryAfterMillis());
+        }
+    }
+
+    @Test
+    public void openBreakerAndRetryAfter_surviveANewProcess() {
+        RequestBudget first = newBudget();
+        first.recordRateLimited(120_000);
+        for (int i = 0; i < 3; i++) {
+            first.recordFailure(0);
+        }
+
+        RequestBudget second = newBudget();
+        assertEquals(RequestBudget.BreakerState.OPEN, second.getBreakerState());
+        now.addAndGet(30_000);
+        try {
+            second.acquire("key");
+            fail("Expected the restored breaker to turn the request away");
+        } catch (ThrottledException expected) {
+            assertEquals(30_000, expected.getRetryAfterMillis());
+        }
+
+        // Past the breaker, the provider's Retry-After still holds
+        now.addAndGet(30_000);
+        try {
+            newBudget().acquire("key");
+            fail("Expected the restored Retry-After to turn the request away");
+        } catch (ThrottledException expected) {
+            assertEquals(60_000, expected.getRetryAfterMillis());
+        }
+    }
+
+    @Test
+    public void clockSetBackwards_doesNotDrainTheBucket() throws ThrottledException {
+        RequestBudget first = newBudget();
+        first.acquire("key");
+
+        now.addAndGet(-3_600_000);
+        assertEquals(2, newBudget().getRemaining("key"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.freezer.diagnostics;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RefreshTraceLogTest {
+    private static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private final RefreshTraceLog log = new RefreshTraceLog(true);
+
+    @Test
+    public void splitOff_movesParseTimeOutOfNetwork() throws InterruptedException {
+        RefreshTrace trace = new RefreshTrace("launch");
+        trace.begin(RefreshTrace.Stage.NETWORK);
+        Thread.sleep(30);
+        trace.end(RefreshTrace.Stage.NETWORK);
+        long network = trace.getMillis(RefreshTrace.Stage.NETWORK);
+
+        trace.splitOff(RefreshTrace.Stage.NETWORK, RefreshTrace.Stage.PARSE, 10);
+
+        assertEquals(10, trace.getMillis(RefreshTrace.Stage.PARSE));
+        assertEquals(network - 10, trace.getMillis(RefreshTrace.Stage.NETWORK));
+        assertEquals(network, trace.getTotalMillis());
+    }
+
+    @Test
+    public void finish_endsOpenStagesAndSkipsOnesNeverReached() {
+        RefreshTrace trace = new RefreshTrace("pull");
+        trace.begin(RefreshTrace.Stage.LOCATION);
+        trace.finish("no fix", log);
+
+        assertTrue(trace.getMillis(RefreshTrace.Stage.LOCATION) >= 0);
+        assertEquals(-1, trace.getMillis(RefreshTrace.Stage.NETWORK));
+        assertEquals("no fix", trace.getOutcome());
+
+        // Late callbacks after finishing change nothing
+        trace.begin(RefreshTrace.Stage.NETWORK);
+        trace.finish("ok", log);
+        assertEquals(-1, trace.getMillis(RefreshTrace.Stage.NETWORK));
+        assertEquals(1, log.getRecent().size());
+    }
+
+    @Test
+    public void keepsNewestTracesFirstUpToCapacity() {
+        for (int i = 0; i < RefreshTraceLog.CAPACITY + 5; i++) {
+            new RefreshTrace("refresh" + i).finish("ok", log);
+        }
+
+        List<RefreshTrace> recent = log.getRecent();
+        assertEquals(RefreshTraceLog.CAPACITY, recent.size());
+        assertEquals("refresh" + (RefreshTraceLog.CAPACITY + 4), recent.get(0).getTrigger());
+        assertEquals("refresh5", recent.get(recent.size() - 1).getTrigger());
+    }
+
+    @Test
+    public void countsFramesOverBudgetAsJanky() {
+        log.recordStripFrame(TimeUnit.MILLISECONDS.toNanos(8), BUDGET_NANOS);
+        log.recordStripFrame(TimeUnit.MILLISECONDS.toNanos(16), BUDGET_NANOS);
+        log.recordStripFrame(TimeUnit.MILLISECONDS.toNanos(40), BUDGET_NANOS);
+
+        assertEquals(3, log.getStripFrameCount());
+        assertEquals(1, log.getStripJankyFrameCount());
+        assertEquals(40, log.getWorstStripFrameMillis());
+        assertTrue(log.format().contains("3 frames while scrolling, 1 janky (33.3%), worst 40 ms"));
+    }
+
+    @Test
+    public void format_showsDashForStagesNeverReached() {
+        RefreshTrace trace = new RefreshTrace("retry");
+        trace.begin(RefreshTrace.Stage.LOCATION);
+        trace.end(RefreshTrace.Stage.LOCATION);
+        trace.finish("error", log);
+
+        String[] lines = log.format().split("\n");
+        assertTrue(lines[0].startsWith("time"));
+        assertTrue(lines[1].contains("retry"));
+        assertTrue(lines[1].contains("error"));
+        assertTrue(lines[1].matches(".*error\\s+\\d+\\s+-\\s+-\\s+-\\s+-\\s+\\d+\\s*"));
+    }
+
+    @Test
+    public void disabledLog_recordsNothing() {
+        RefreshTraceLog disabled = new RefreshTraceLog(false);
+        new RefreshTrace("launch").finish("ok", disabled);
+        disabled.recordStripFrame(TimeUnit.MILLISECONDS.toNanos(40), BUDGET_NANOS);
+
+        assertTrue(disabled.getRecent().isEmpty());
+        assertEquals(0, disabled.getStripFrameCount());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.freezer.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AlertEngineTest {
+    // 2025-10-18 18:00 UTC, 11:00 in Seattle
+    private static final long BASE = 1760810400L;
+    private static final int SEATTLE = -7 * 3600;
+
+    // Slot i is at 11:00 + 3i local: 4-6 are tonight's 23:00-05:00, 7 is tomorrow 08:00
+    private static ForecastSeries series(float[] temp, float[] pop, float[] rain, float[] wind) {
+        ForecastSeries.Builder builder = new ForecastSeries.Builder(temp.length);
+        for (int i = 0; i < temp.length; i++) {
+            builder.add(BASE + i * 3 * 3600L, temp[i], temp[i], 50, pop[i], rain[i], 0, wind[i],
+                    "Clouds", "overcast clouds", "04d");
+        }
+        return builder.build();
+    }
+
+    private static float[] filled(float value) {
+        float[] values = new float[10];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    @Test
+    public void builtInRules_findOvernightLowAndFirstWetCommuteSlot() {
+        float[] temp = filled(50);
+        temp[4] = 33;
+        temp[5] = 30;
+        temp[6] = 31;
+        float[] pop = filled(0);
+        pop[7] = 0.4f;
+        ForecastSeries series = series(temp, pop, filled(0), filled(5));
+
+        AlertEngine engine = AlertEngine.compile(Arrays.asList(AlertRule.freeze(true), AlertRule.umbrella(true)));
+        List<AlertEngine.Match> matches = engine.evaluate(series, BASE, SEATTLE);
+
+        assertEquals(2, matches.size());
+        AlertEngine.Match freeze = matches.get(0);
+        assertEquals(AlertRule.FREEZE_ID, freeze.getRule().getId());
+        // 02:00 is the coldest slot of tonight's 22:00-08:00 window
+        assertEquals(5, freeze.getPeakIndex());
+        assertEquals(5, freeze.getFirstIndex());
+        assertEquals(30, freeze.getPeakValue(), 0.001);
+
+        AlertEngine.Match umbrella = matches.get(1);
+        // 08:00 tomorrow, the only slot in the 7-10 AM window
+        assertEquals(7, umbrella.getFirstIndex());
+    }
+
+    @Test
+    public void eachRuleOnlySeesSlotsInItsOwnWindow() {
+        float[] wind = filled(5);
+        wind[1] = 30;
+        wind[2] = 35;
+        wind[4] = 60;
+        AlertRule windy = new AlertRule("w", "Windy afternoon", AlertRule.Check.MORNING, 12, 18, true,
+                Collections.singletonList(new AlertRule.Condition(
+                        AlertRule.Metric.WIND_SPEED, AlertRule.Comparison.ABOVE, 25)));
+
+        List<AlertEngine.Match> matches = AlertEngine.compile(Collections.singletonList(windy))
+                .evaluate(series(filled(50), filled(0), filled(0), wind), BASE, SEATTLE);
+
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).getFirstIndex());
+        assertEquals(2, matches.get(0).getPeakIndex());
+        assertEquals(35, matches.get(0).getPeakValue(), 0.001);
+    }
+
+    @Test
+    public void anyConditionFiresTheRule_andThresholdsKeepTheirBounds() {
+        float[] temp = filled(50);
+        temp[5] = 32;
+        float[] rain = filled(0);
+        rain[7] = 0.5f;
+        ForecastSeries series = series(temp, filled(0), rain, filled(5));
+
+        List<AlertEngine.Match> matches = AlertEngine.compile(Arrays.asList(AlertRule.freeze(true), AlertRule.umbrella(true)))
+                .evaluate(series, BASE, SEATTLE);
+
+        // At most 32°F includes 32; rain alone is enough for the umbrella rule
+        assertEquals(2, matches.size());
+        assertEquals(5, matches.get(0).getPeakIndex());
+        assertEquals(7, matches.get(1).getFirstIndex());
+    }
+
+    @Test
+    public void quietForecast_hasNoMatches() {
+        ForecastSeries series = series(filled(50), filled(0.25f), filled(0.05f), filled(5));
+
+        assertTrue(AlertEngine.compile(Arrays.asList(AlertRule.freeze(true), AlertRule.umbrella(true)))
+                .evaluate(series, BASE, SEATTLE).isEmpty());
+    }
+}
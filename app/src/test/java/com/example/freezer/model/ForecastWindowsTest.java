@@ -0,0 +1,65 @@
+package com.example.freezer.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ForecastWindowsTest {
+    // 2025-10-18 18:00 UTC
+    private static final long BASE = 1760810400L;
+    private static final int SEATTLE = -7 * 3600;
+    private static final int TOKYO = 9 * 3600;
+
+    private static ForecastSeries threeHourly(long start, int slots) {
+        ForecastSeries.Builder builder = new ForecastSeries.Builder(slots);
+        for (int i = 0; i < slots; i++) {
+            builder.add(start + i * 3 * 3600L, i, i, 50, 0, 0, 0, 0, "Clear", "clear sky", "01d");
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void localMidnight_usesCityOffsetNotDeviceZone() {
+        // 18:00 UTC is 11:00 in Seattle and 03:00 the next day in Tokyo
+        assertEquals(11, ForecastWindows.localHour(BASE, SEATTLE));
+        assertEquals(3, ForecastWindows.localHour(BASE, TOKYO));
+        assertEquals(BASE - 11 * 3600, ForecastWindows.localMidnight(BASE, SEATTLE));
+        assertEquals(BASE - 3 * 3600, ForecastWindows.localMidnight(BASE, TOKYO));
+    }
+
+    @Test
+    public void windowStart_overnightWindowCrossesMidnight() {
+        long start = ForecastWindows.windowStart(BASE, SEATTLE, 22, 8);
+        long end = ForecastWindows.windowEnd(start, 22, 8);
+
+        assertEquals(22, ForecastWindows.localHour(start, SEATTLE));
+        assertEquals(10 * 3600, end - start);
+        assertEquals(11 * 3600, start - BASE);
+    }
+
+    @Test
+    public void windowStart_returnsWindowInProgress() {
+        // 03:00 in Tokyo is inside the overnight window that started yesterday at 22:00
+        long start = ForecastWindows.windowStart(BASE, TOKYO, 22, 8);
+        assertEquals(BASE - 5 * 3600, start);
+    }
+
+    @Test
+    public void windowStart_rollsToTomorrowOnceWindowHasEnded() {
+        // 11:00 in Seattle, so today's 7-10 AM window is over
+        long start = ForecastWindows.windowStart(BASE, SEATTLE, 7, 10);
+        assertEquals(ForecastWindows.localMidnight(BASE, SEATTLE) + 24 * 3600 + 7 * 3600, start);
+    }
+
+    @Test
+    public void indexAtOrAfter_findsWindowBounds() {
+        ForecastSeries series = threeHourly(BASE, 40);
+
+        assertEquals(0, series.indexAtOrAfter(BASE - 1));
+        assertEquals(0, series.indexAtOrAfter(BASE));
+        assertEquals(1, series.indexAtOrAfter(BASE + 1));
+        assertEquals(39, series.indexAtOrAfter(BASE + 39 * 3 * 3600L));
+        assertEquals(40, series.indexAtOrAfter(BASE + 40 * 3 * 3600L));
+        assertEquals(0, ForecastSeries.EMPTY.indexAtOrAfter(BASE));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.freezer.repository;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class AlertDeliveryLogTest {
+    // 2025-10-18 18:00 UTC
+    private static final long BASE_MILLIS = 1760810400000L;
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final ForecastDatabase database = new ForecastDatabase(RuntimeEnvironment.getApplication(), null);
+    private final AlertDeliveryLog log = new AlertDeliveryLog(database);
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    // One run on the given day, delivered lateMillis after it was due
+    private void record(String alert, int day, long lateMillis) {
+        long scheduledAt = BASE_MILLIS + day * DAY;
+        log.record(alert, scheduledAt, scheduledAt + lateMillis / 2, scheduledAt + lateMillis, 1, 0);
+    }
+
+    @Test
+    public void percentile_isNearestRank() {
+        long[] sorted = {10, 20, 30, 40, 50, 60, 70, 80, 90, 100};
+        assertEquals(50, AlertDeliveryLog.percentile(sorted, 0.50));
+        assertEquals(100, AlertDeliveryLog.percentile(sorted, 0.95));
+        assertEquals(10, AlertDeliveryLog.percentile(sorted, 0));
+        assertEquals(7, AlertDeliveryLog.percentile(new long[]{7}, 0.95));
+    }
+
+    @Test
+    public void summarize_reportsPercentilesOfThatAlertOnly() {
+        record("EVENING", 0, 1000);
+        record("EVENING", 1, 3000);
+        record("EVENING", 2, 2000);
+        record("EVENING", 3, 60_000);
+        record("MORNING", 3, 500_000);
+
+        assertEquals("4 runs, p50 2000 ms, p95 60000 ms, max 60000 ms", log.summarize("EVENING", 30));
+    }
+
+    @Test
+    public void summarize_usesOnlyTheLatestRuns() {
+        record("EVENING", 0, 90_000);
+        record("EVENING", 1, 1000);
+        record("EVENING", 2, 3000);
+
+        assertEquals("2 runs, p50 1000 ms, p95 3000 ms, max 3000 ms", log.summarize("EVENING", 2));
+        assertEquals("no runs", log.summarize("MORNING", 30));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.model.Settings;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AlertRuleStoreTest {
+
+    @Test
+    public void rules_roundTripThroughJson() throws IOException {
+        AlertRule heat = new AlertRule("h1", "Heat", AlertRule.Check.MORNING, 12, 18, false, Arrays.asList(
+                new AlertRule.Condition(AlertRule.Metric.TEMP, AlertRule.Comparison.ABOVE, 95),
+                new AlertRule.Condition(AlertRule.Metric.HUMIDITY, AlertRule.Comparison.ABOVE, 80)));
+
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out)) {
+            AlertRuleStore.writeRules(writer, Collections.singletonList(heat));
+        }
+        List<AlertRule> read = AlertRuleStore.readRules(new JsonReader(new StringReader(out.toString())));
+
+        assertEquals(1, read.size());
+        AlertRule rule = read.get(0);
+        assertEquals("h1", rule.getId());
+        assertEquals("Heat", rule.getName());
+        assertEquals(AlertRule.Check.MORNING, rule.getCheck());
+        assertEquals(12, rule.getStartHour());
+        assertEquals(18, rule.getEndHour());
+        assertFalse(rule.isEnabled());
+        assertEquals(2, rule.getConditions().size());
+        assertEquals(AlertRule.Metric.HUMIDITY, rule.getConditions().get(1).getMetric());
+        assertEquals(80, rule.getConditions().get(1).getThreshold(), 0.0);
+    }
+
+    @Test
+    public void getEnabled_followsTogglesForBuiltInsAndGroupsByCheck() throws IOException {
+        AlertRule wind = new AlertRule("w1", "Wind", AlertRule.Check.EVENING, 22, 8, true,
+                Collections.singletonList(new AlertRule.Condition(
+                        AlertRule.Metric.WIND_SPEED, AlertRule.Comparison.ABOVE, 30)));
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out)) {
+            AlertRuleStore.writeRules(writer, Collections.singletonList(wind));
+        }
+        Settings settings = new Settings.Builder()
+                .setFreezeAlertsEnabled(false)
+                .setUmbrellaAlertsEnabled(true)
+                .setAlertRulesJson(out.toString())
+                .build();
+
+        List<AlertRule> evening = AlertRuleStore.getEnabled(settings, AlertRule.Check.EVENING);
+        List<AlertRule> morning = AlertRuleStore.getEnabled(settings, AlertRule.Check.MORNING);
+
+        assertEquals(1, evening.size());
+        assertEquals("w1", evening.get(0).getId());
+        assertEquals(1, morning.size());
+        assertEquals(AlertRule.UMBRELLA_ID, morning.get(0).getId());
+        assertTrue(AlertRuleStore.hasEnabled(settings));
+        assertFalse(AlertRuleStore.hasEnabled(Settings.DEFAULTS));
+    }
+
+    @Test
+    public void unknownEnum_skipsOnlyThatRule() throws IOException {
+        String json = "["
+                + "{\"id\":\"a\",\"check\":\"MORNING\",\"start_hour\":7,\"end_hour\":10,"
+                + "\"conditions\":[{\"metric\":\"UV_INDEX\",\"comparison\":\"ABOVE\",\"threshold\":8}]},"
+                + "{\"id\":\"b\",\"check\":\"AFTERNOON\",\"start_hour\":12,\"end_hour\":18,"
+                + "\"conditions\":[{\"metric\":\"TEMP\",\"comparison\":\"ABOVE\",\"threshold\":90}]},"
+                + "{\"id\":\"c\",\"check\":\"EVENING\",\"start_hour\":22,\"end_hour\":8,"
+                + "\"conditions\":[{\"metric\":\"TEMP\",\"comparison\":\"AT_MOST\",\"threshold\":20}]}"
+                + "]";
+
+        List<AlertRule> read = AlertRuleStore.readRules(new JsonReader(new StringReader(json)));
+
+        assertEquals(1, read.size());
+        assertEquals("c", read.get(0).getId());
+        assertEquals(20, read.get(0).getConditions().get(0).getThreshold(), 0.0);
+    }
+
+    @Test
+    public void outOfRangeHours_areRejected() throws IOException {
+        List<AlertRule.Condition> conditions = Collections.singletonList(
+                new AlertRule.Condition(AlertRule.Metric.TEMP, AlertRule.Comparison.ABOVE, 90));
+        assertInvalid(() -> new AlertRule("x", "x", AlertRule.Check.MORNING, 24, 8, true, conditions));
+        assertInvalid(() -> new AlertRule("x", "x", AlertRule.Check.MORNING, 7, -1, true, conditions));
+        assertInvalid(() -> new AlertRule("x", "x", AlertRule.Check.MORNING, 7, 10, true,
+                Collections.<AlertRule.Condition>emptyList()));
+
+        // A stored rule with bad hours is dropped on read, the rest survive
+        String json = "["
+                + "{\"id\":\"late\",\"check\":\"EVENING\",\"start_hour\":25,\"end_hour\":8,"
+                + "\"conditions\":[{\"metric\":\"TEMP\",\"comparison\":\"AT_MOST\",\"threshold\":20}]},"
+                + "{\"id\":\"ok\",\"check\":\"EVENING\",\"start_hour\":23,\"end_hour\":0,"
+                + "\"conditions\":[{\"metric\":\"TEMP\",\"comparison\":\"AT_MOST\",\"threshold\":20}]}"
+                + "]";
+        List<AlertRule> read = AlertRuleStore.readRules(new JsonReader(new StringReader(json)));
+        assertEquals(1, read.size());
+        assertEquals("ok", read.get(0).getId());
+    }
+
+    private static void assertInvalid(Runnable create) {
+        try {
+            create.run();
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+    }
+}
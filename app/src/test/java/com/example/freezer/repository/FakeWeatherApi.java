@@ -0,0 +1,75 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.api.WeatherAPI;
+import com.example.freezer.model.ForecastResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * WeatherAPI whose calls stay pending until a test completes them.
+ */
+class FakeWeatherApi implements WeatherAPI {
+    final List<FakeCall> calls = new ArrayList<>();
+
+    static class FakeCall implements Call<ForecastResponse> {
+        final double lat;
+        Callback<ForecastResponse> callback;
+        boolean canceled;
+
+        FakeCall(double lat) {
+            this.lat = lat;
+        }
+
+        void succeed(ForecastResponse forecast) {
+            callback.onResponse(this, Response.success(forecast));
+        }
+
+        void fail(String message) {
+            callback.onFailure(this, new IOException(message));
+        }
+
+        // What OkHttp does when callTimeout fires: the call reports canceled without anyone calling cancel()
+        void timeOut() {
+            canceled = true;
+            callback.onFailure(this, new InterruptedIOException("timeout"));
+        }
+
+        @Override public Response<ForecastResponse> execute() { throw new UnsupportedOperationException(); }
+        @Override public void enqueue(Callback<ForecastResponse> callback) { this.callback = callback; }
+        @Override public boolean isExecuted() { return callback != null; }
+        @Override public void cancel() {
+            canceled = true;
+            if (callback != null) {
+                callback.onFailure(this, new IOException("Canceled"));
+            }
+        }
+        @Override public boolean isCanceled() { return canceled; }
+        @Override public Call<ForecastResponse> clone() { return new FakeCall(lat); }
+        @Override public Request request() { return new Request.Builder().url("http://localhost/").build(); }
+        @Override public Timeout timeout() { return Timeout.NONE; }
+    }
+
+    @Override
+    public synchronized Call<ForecastResponse> getForecastByCoords(double lat, double lon, String apiKey, String units) {
+        FakeCall call = new FakeCall(lat);
+        calls.add(call);
+        return call;
+    }
+
+    synchronized FakeCall call(int i) {
+        return calls.get(i);
+    }
+
+    synchronized int callCount() {
+        return calls.size();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.freezer.repository;
+
+import android.database.Cursor;
+
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.example.freezer.model.ForecastSnapshot;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class ForecastHistoryStoreTest {
+    // 2025-10-18 18:00 UTC
+    private static final long BASE = 1760810400L;
+    private static final long SLOT = 3 * 3600L;
+    private static final long FETCHED_AT = TimeUnit.SECONDS.toMillis(BASE);
+
+    private final ForecastDatabase database = new ForecastDatabase(RuntimeEnvironment.getApplication(), null);
+    private final ForecastHistoryStore store = new ForecastHistoryStore(database);
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    // Slots every 3 hours from firstDt, with temps in order
+    private static ForecastSnapshot snapshot(long fetchedAtMillis, long firstDt, float... temps) {
+        ForecastSeries.Builder builder = new ForecastSeries.Builder(temps.length);
+        for (int i = 0; i < temps.length; i++) {
+            builder.add(firstDt + i * SLOT, temps[i], temps[i], 50, 0.2f, 0, 0, 4, "Clouds", "overcast clouds", "04d");
+        }
+        ForecastResponse.City city = new ForecastResponse.City();
+        city.setName("Seattle");
+        city.setCountry("US");
+        city.setTimezone(-7 * 3600);
+        ForecastResponse forecast = new ForecastResponse();
+        forecast.setCity(city);
+        forecast.setSeries(builder.build());
+        return new ForecastSnapshot(47.6, -122.3, fetchedAtMillis, forecast);
+    }
+
+    private long updatedAt(String locationId, long dt) {
+        try (Cursor cursor = database.getReadableDatabase().rawQuery("SELECT updated_at FROM "
+                + ForecastDatabase.TABLE_SLOTS + " WHERE location_id = ? AND dt = ?",
+                new String[]{locationId, Long.toString(dt)})) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        }
+    }
+
+    @Test
+    public void merge_writesOnlyNewAndChangedSlots() {
+        store.merge("current", snapshot(FETCHED_AT, BASE, 40, 38, 36));
+        long later = FETCHED_AT + TimeUnit.HOURS.toMillis(3);
+        // One slot later: 38 unchanged, 36 revised to 33, one new slot
+        store.merge("current", snapshot(later, BASE + SLOT, 38, 33, 31));
+
+        ForecastSeries series = store.querySeries("current", 0, Long.MAX_VALUE);
+        assertEquals(4, series.size());
+        assertEquals(40, series.getTemp(0), 0f);
+        assertEquals(33, series.getTemp(2), 0f);
+        assertEquals(31, series.getTemp(3), 0f);
+        // The first slot is no longer forecast but stays as history
+        assertEquals(FETCHED_AT, updatedAt("current", BASE));
+        assertEquals(FETCHED_AT, updatedAt("current", BASE + SLOT));
+        assertEquals(later, updatedAt("current", BASE + 2 * SLOT));
+        assertEquals(later, updatedAt("current", BASE + 3 * SLOT));
+    }
+
+    @Test
+    public void merge_keepsLocationsApart() {
+        store.merge("current", snapshot(FETCHED_AT, BASE, 40, 38));
+        store.merge("cabin", snapshot(FETCHED_AT, BASE, 20, 18));
+
+        assertEquals(40, store.querySeries("current", 0, Long.MAX_VALUE).getTemp(0), 0f);
+        assertEquals(20, store.querySeries("cabin", 0, Long.MAX_VALUE).getTemp(0), 0f);
+    }
+
+    @Test
+    public void querySeries_readsHalfOpenRangeInOrder() {
+        store.merge("current", snapshot(FETCHED_AT, BASE, 40, 38, 36, 34, 32));
+
+        ForecastSeries range = store.querySeries("current", BASE + SLOT, BASE + 3 * SLOT);
+
+        assertEquals(2, range.size());
+        assertEquals(BASE + SLOT, range.getDt(0));
+        assertEquals(BASE + 2 * SLOT, range.getDt(1));
+        assertEquals("overcast clouds", range.getConditionDescription(1));
+        assertEquals(0, store.querySeries("current", BASE + 5 * SLOT, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void loadSnapshot_rebuildsLatestFetchFromItsFirstSlot() {
+        assertNull(store.loadSnapshot("current"));
+
+        store.merge("current", snapshot(FETCHED_AT, BASE, 40, 38, 36));
+        long later = FETCHED_AT + TimeUnit.HOURS.toMillis(6);
+        store.merge("current", snapshot(later, BASE + 2 * SLOT, 35, 30));
+
+        ForecastSnapshot loaded = store.loadSnapshot("current");
+        assertEquals(later, loaded.getFetchedAtMillis());
+        assertEquals(47.6, loaded.getLat(), 0);
+        assertEquals("Seattle", loaded.getForecast().getCity().getName());
+        assertEquals(Integer.valueOf(-7 * 3600), loaded.getForecast().getCity().getTimezone());
+        // Older history isn't part of the snapshot
+        ForecastSeries series = loaded.getForecast().getSeries();
+        assertEquals(2, series.size());
+        assertEquals(BASE + 2 * SLOT, series.getDt(0));
+        assertEquals(35, series.getTemp(0), 0f);
+    }
+
+    @Test
+    public void merge_prunesSlotsPastRetention() {
+        long oldDt = BASE - TimeUnit.DAYS.toSeconds(731);
+        store.merge("current", snapshot(TimeUnit.SECONDS.toMillis(oldDt), oldDt, 50, 49));
+        store.merge("cabin", snapshot(TimeUnit.SECONDS.toMillis(oldDt), oldDt, 30));
+
+        store.merge("current", snapshot(FETCHED_AT, BASE, 40));
+
+        assertEquals(1, store.querySeries("current", 0, Long.MAX_VALUE).size());
+        // Retention applies to every location, not just the one merged
+        assertEquals(0, store.querySeries("cabin", 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void prune_keepsSlotsInsideRetention() {
+        long recentDt = BASE - TimeUnit.DAYS.toSeconds(729);
+        store.merge("current", snapshot(TimeUnit.SECONDS.toMillis(recentDt), recentDt, 50));
+
+        assertEquals(0, store.prune(FETCHED_AT - ForecastHistoryStore.RETENTION_MILLIS));
+        assertEquals(1, store.querySeries("current", 0, Long.MAX_VALUE).size());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.model.ForecastResponse;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ForecastPrefetcherTest {
+    private static final double LAT = 47.6062;
+    private static final double LON = -122.3321;
+    // About 1.1 km and 11 km north of LAT
+    private static final double NEARBY_LAT = LAT + 0.01;
+    private static final double FAR_LAT = LAT + 0.1;
+
+    private final AtomicLong now = new AtomicLong(10_000);
+    private final FakeWeatherApi api = new FakeWeatherApi();
+    private final ForecastRepository repository = new ForecastRepository(api, api);
+    private final ForecastPrefetcher prefetcher = new ForecastPrefetcher(repository, now::get);
+
+    @Test
+    public void nearbyFix_claimsFetchStillInFlight_andCountsOverlapAsSaved() {
+        ForecastPrefetcher.Speculation speculation = prefetcher.speculate(LAT, LON, "imperial");
+        now.addAndGet(400);
+        RecordingCallback callback = new RecordingCallback();
+
+        assertTrue(speculation.claim(NEARBY_LAT, LON, callback));
+        assertNull(callback.forecast);
+
+        now.addAndGet(300);
+        ForecastResponse forecast = new ForecastResponse();
+        api.calls.get(0).succeed(forecast);
+
+        assertSame(forecast, callback.forecast);
+        assertEquals(1, api.calls.size());
+        assertEquals(1, prefetcher.getHitCount());
+        // The fix took 400 ms, all of which the fetch was already running
+        assertEquals(400, prefetcher.getTotalSavedMillis());
+    }
+
+    @Test
+    public void nearbyFix_afterFetchCompleted_getsResultRightAway() {
+        ForecastPrefetcher.Speculation speculation = prefetcher.speculate(LAT, LON, "imperial");
+        now.addAndGet(250);
+        ForecastResponse forecast = new ForecastResponse();
+        api.calls.get(0).succeed(forecast);
+        now.addAndGet(1000);
+        RecordingCallback callback = new RecordingCallback();
+
+        assertTrue(speculation.claim(NEARBY_LAT, LON, callback));
+
+        assertSame(forecast, callback.forecast);
+        // Saved the whole 250 ms fetch
+        assertEquals(250, prefetcher.getTotalSavedMillis());
+    }
+
+    @Test
+    public void farFix_cancelsSpeculativeCall() {
+        ForecastPrefetcher.Speculation speculation = prefetcher.speculate(LAT, LON, "imperial");
+        RecordingCallback callback = new RecordingCallback();
+
+        assertFalse(speculation.claim(FAR_LAT, LON, callback));
+
+        assertTrue(api.calls.get(0).canceled);
+        assertNull(callback.forecast);
+        assertNull(callback.error);
+        assertEquals(1, prefetcher.getMissCount());
+        assertEquals(0, prefetcher.getHitRate(), 0);
+        assertEquals(1, repository.getCancelledCount());
+    }
+
+    @Test
+    public void maxDistance_isConfigurable() {
+        prefetcher.setMaxDistanceMeters(500);
+        ForecastPrefetcher.Speculation speculation = prefetcher.speculate(LAT, LON, "imperial");
+
+        assertFalse(speculation.claim(NEARBY_LAT, LON, new RecordingCallback()));
+        assertEquals(1, prefetcher.getMissCount());
+    }
+
+    @Test
+    public void failedSpeculation_isNotClaimed() {
+        ForecastPrefetcher.Speculation speculation = prefetcher.speculate(LAT, LON, "imperial");
+        api.calls.get(0).fail("offline");
+
+        assertFalse(speculation.claim(LAT, LON, new RecordingCallback()));
+        assertEquals(0, prefetcher.getHitCount());
+        assertEquals(1, prefetcher.getUnusedCount());
+    }
+
+    @Test
+    public void cancellingSpeculation_keepsSharedCallForOtherWaiters() {
+        ForecastPrefetcher.Speculation speculation = prefetcher.speculate(LAT, LON, "imperial");
+        RecordingCallback other = new RecordingCallback();
+        repository.getForecast(LAT, LON, "imperial", other);
+
+        speculation.cancel();
+        ForecastResponse forecast = new ForecastResponse();
+        api.calls.get(0).succeed(forecast);
+
+        assertFalse(api.calls.get(0).canceled);
+        assertSame(forecast, other.forecast);
+        assertEquals(0, repository.getCancelledCount());
+    }
+
+    @Test
+    public void distanceMeters_matchesKnownDistance() {
+        // Seattle to Portland is about 234 km
+        double meters = ForecastPrefetcher.distanceMeters(47.6062, -122.3321, 45.5152, -122.6784);
+        assertEquals(234_000, meters, 2_000);
+        assertEquals(0, ForecastPrefetcher.distanceMeters(LAT, LON, LAT, LON), 0);
+    }
+}
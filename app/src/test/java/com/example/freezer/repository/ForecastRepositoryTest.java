@@ -0,0 +1,96 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.model.ForecastResponse;
+
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+
+import static org.junit.Assert.*;
+
+public class ForecastRepositoryTest {
+    private static final double LAT = 47.6062;
+    private static final double LON = -122.3321;
+
+    private final FakeWeatherApi api = new FakeWeatherApi();
+    private final ForecastRepository repository = new ForecastRepository(api, api);
+
+    @Test
+    public void concurrentRequests_shareOneCall() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        repository.getForecast(LAT, LON, "imperial", first);
+        repository.getForecast(LAT, LON, "imperial", second);
+
+        ForecastResponse forecast = new ForecastResponse();
+        api.call(0).succeed(forecast);
+
+        assertEquals(1, api.callCount());
+        assertSame(forecast, first.forecast);
+        assertSame(forecast, second.forecast);
+        assertEquals(1, repository.getDeduplicatedCount());
+    }
+
+    @Test
+    public void timedOutCall_failsEveryWaiter_andFreesItsKey() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        repository.getForecast(LAT, LON, "imperial", first);
+        repository.getForecast(LAT, LON, "imperial", second);
+
+        // OkHttp marks a call canceled when callTimeout fires, though nobody called cancel()
+        api.call(0).timeOut();
+
+        assertEquals("timeout", first.error);
+        assertEquals("timeout", second.error);
+        assertEquals(0, repository.getCancelledCount());
+
+        RecordingCallback retry = new RecordingCallback();
+        repository.getForecast(LAT, LON, "imperial", retry);
+        assertEquals(2, api.callCount());
+        ForecastResponse forecast = new ForecastResponse();
+        api.call(1).succeed(forecast);
+        assertSame(forecast, retry.forecast);
+    }
+
+    @Test
+    public void cancelledCall_isNotReportedToAnyone() {
+        RecordingCallback callback = new RecordingCallback();
+        repository.getForecast(LAT, LON, "imperial", callback).cancel();
+
+        assertTrue(api.call(0).canceled);
+        assertEquals(0, callback.calls);
+        assertEquals(1, repository.getCancelledCount());
+    }
+
+    @Test
+    public void blockingTimeout_cancelsTheCall() throws Exception {
+        try {
+            repository.getForecastBlocking(LAT, LON, "imperial", 10);
+            fail("Expected a timeout");
+        } catch (InterruptedIOException expected) {
+        }
+
+        assertTrue(api.call(0).canceled);
+        assertEquals(1, repository.getCancelledCount());
+        // The key is free again, so the next request fetches instead of joining the dead call
+        repository.getForecast(LAT, LON, "imperial", new RecordingCallback());
+        assertEquals(2, api.callCount());
+    }
+
+    @Test
+    public void blockingTimeout_leavesSharedCallToOtherWaiters() throws Exception {
+        RecordingCallback other = new RecordingCallback();
+        repository.getForecast(LAT, LON, "imperial", other);
+        try {
+            repository.getForecastBlocking(LAT, LON, "imperial", 10);
+            fail("Expected a timeout");
+        } catch (InterruptedIOException expected) {
+        }
+
+        assertFalse(api.call(0).canceled);
+        ForecastResponse forecast = new ForecastResponse();
+        api.call(0).succeed(forecast);
+        assertSame(forecast, other.forecast);
+    }
+}
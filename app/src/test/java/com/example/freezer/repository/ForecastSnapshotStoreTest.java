@@ -0,0 +1,99 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.api.ForecastJsonEncoder;
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.example.freezer.model.ForecastSnapshot;
+import com.google.gson.stream.JsonWriter;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class ForecastSnapshotStoreTest {
+    // 2025-10-18 18:00 UTC
+    private static final long BASE = 1760810400L;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ForecastDatabase database = new ForecastDatabase(RuntimeEnvironment.getApplication(), null);
+    private final ForecastHistoryStore history = new ForecastHistoryStore(database);
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    private static void writeLegacyFile(File file, long fetchedAtMillis) throws IOException {
+        ForecastSeries.Builder builder = new ForecastSeries.Builder(2);
+        builder.add(BASE, 31, 25, 80, 0.1f, 0, 0, 3, "Clear", "clear sky", "01n");
+        builder.add(BASE + 3 * 3600L, 29, 22, 85, 0, 0, 0.4f, 2, "Snow", "light snow", "13n");
+        ForecastResponse.City city = new ForecastResponse.City();
+        city.setName("Seattle");
+        city.setCountry("US");
+        ForecastResponse forecast = new ForecastResponse();
+        forecast.setCity(city);
+        forecast.setSeries(builder.build());
+
+        try (JsonWriter writer = new JsonWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.beginObject();
+            writer.name("lat").value(47.6);
+            writer.name("lon").value(-122.3);
+            writer.name("fetched_at").value(fetchedAtMillis);
+            writer.name("forecast");
+            ForecastJsonEncoder.encode(writer, forecast);
+            writer.endObject();
+        }
+    }
+
+    @Test
+    public void legacyFile_isMovedIntoHistoryOnce() throws IOException {
+        File legacyFile = folder.newFile(ForecastSnapshotStore.legacyFileName("current"));
+        long fetchedAt = BASE * 1000;
+        writeLegacyFile(legacyFile, fetchedAt);
+
+        ForecastSnapshot migrated = new ForecastSnapshotStore(history, "current", legacyFile).get();
+
+        assertEquals(fetchedAt, migrated.getFetchedAtMillis());
+        assertEquals(2, migrated.getForecast().getSeries().size());
+        assertFalse(legacyFile.exists());
+
+        ForecastSnapshot stored = history.loadSnapshot("current");
+        assertEquals(fetchedAt, stored.getFetchedAtMillis());
+        assertEquals("Seattle", stored.getForecast().getCity().getName());
+        ForecastSeries series = stored.getForecast().getSeries();
+        assertEquals(2, series.size());
+        assertEquals(0.4f, series.getSnow3h(1), 0f);
+        assertEquals("light snow", series.getConditionDescription(1));
+
+        // A fresh process reads the database and finds no file to migrate
+        assertEquals(fetchedAt, new ForecastSnapshotStore(history, "current", legacyFile).get().getFetchedAtMillis());
+    }
+
+    @Test
+    public void unreadableLegacyFile_isDroppedWithoutASnapshot() throws IOException {
+        File legacyFile = folder.newFile(ForecastSnapshotStore.legacyFileName("cabin"));
+        try (OutputStreamWriter out = new OutputStreamWriter(new FileOutputStream(legacyFile), StandardCharsets.UTF_8)) {
+            out.write("{\"lat\": 47.6, \"forecast\": {\"list\": [");
+        }
+
+        assertNull(new ForecastSnapshotStore(history, "cabin", legacyFile).get());
+        assertFalse(legacyFile.exists());
+        assertNull(history.loadSnapshot("cabin"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.freezer.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScheduledExecutorService whose delayed tasks wait until a test calls
+ * {@link #runScheduled()}, so nothing depends on wall-clock timing. Plain
+ * {@link #execute} still runs on a real background thread.
+ */
+class ManualScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final List<Task<?>> scheduled = new ArrayList<>();
+
+    private static class Task<V> extends FutureTask<V> implements ScheduledFuture<V> {
+        final long delayMillis;
+
+        Task(Callable<V> callable, long delayMillis) {
+            super(callable);
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(delayMillis, other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    // Runs every task scheduled so far on the calling thread and returns how many ran
+    int runScheduled() {
+        List<Task<?>> due;
+        synchronized (this) {
+            due = new ArrayList<>(scheduled);
+            scheduled.clear();
+        }
+        for (Task<?> task : due) {
+            task.run();
+        }
+        return due.size();
+    }
+
+    synchronized List<Long> scheduledDelaysMillis() {
+        List<Long> delays = new ArrayList<>();
+        for (Task<?> task : scheduled) {
+            delays.add(task.delayMillis);
+        }
+        return delays;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return schedule(Executors.callable(command), delay, unit);
+    }
+
+    @Override
+    public synchronized <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        Task<V> task = new Task<>(callable, unit.toMillis(delay));
+        scheduled.add(task);
+        return task;
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public void execute(Runnable command) { worker.execute(command); }
+    @Override public void shutdown() { worker.shutdown(); }
+    @Override public List<Runnable> shutdownNow() { return worker.shutdownNow(); }
+    @Override public boolean isShutdown() { return worker.isShutdown(); }
+    @Override public boolean isTerminated() { return worker.isTerminated(); }
+    @Override public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return worker.awaitTermination(timeout, unit);
+    }
+}
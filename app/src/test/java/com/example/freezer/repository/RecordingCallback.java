@@ -0,0 +1,21 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.model.ForecastResponse;
+
+class RecordingCallback implements ForecastRepository.ForecastCallback {
+    ForecastResponse forecast;
+    String error;
+    int calls;
+
+    @Override
+    public void onForecastLoaded(ForecastResponse forecast) {
+        this.forecast = forecast;
+        calls++;
+    }
+
+    @Override
+    public void onForecastError(String error) {
+        this.error = error;
+        calls++;
+    }
+}
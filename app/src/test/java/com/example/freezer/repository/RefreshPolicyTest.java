@@ -0,0 +1,114 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.example.freezer.model.ForecastSnapshot;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RefreshPolicyTest {
+    // 2025-10-18 18:00 UTC, 11:00 in Seattle; a model run boundary
+    private static final long BASE = 1760810400L;
+    private static final int SEATTLE = -7 * 3600;
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    // 18:00 in Seattle, right at the evening check; the next check is 07:00 tomorrow
+    private static final long EVENING = BASE * 1000 + 7 * HOUR;
+    private static final List<AlertRule> BUILT_IN = Arrays.asList(AlertRule.freeze(true), AlertRule.umbrella(true));
+
+    // Slot i is at 11:00 + 3i local: 4-6 are tonight's 22:00-08:00 window, 7 tomorrow's 7-10 AM window
+    private static ForecastSnapshot snapshot(long fetchedAtMillis, float overnightTemp, float morningPop, float wind) {
+        ForecastSeries.Builder builder = new ForecastSeries.Builder(16);
+        for (int i = 0; i < 16; i++) {
+            float temp = i >= 4 && i <= 6 ? overnightTemp : 60;
+            float pop = i == 7 ? morningPop : 0;
+            builder.add(BASE + i * 3 * 3600L, temp, temp, 50, pop, 0, 0, wind, "Clouds", "overcast clouds", "04d");
+        }
+        ForecastResponse.City city = new ForecastResponse.City();
+        city.setName("Seattle");
+        city.setTimezone(SEATTLE);
+        ForecastResponse forecast = new ForecastResponse();
+        forecast.setCity(city);
+        forecast.setSeries(builder.build());
+        return new ForecastSnapshot(47.6, -122.3, fetchedAtMillis, forecast);
+    }
+
+    private static ForecastSnapshot snapshot(long fetchedAtMillis, float overnightTemp, float morningPop) {
+        return snapshot(fetchedAtMillis, overnightTemp, morningPop, 0);
+    }
+
+    @Test
+    public void calmForecast_lastsUntilTheNextCheck() {
+        long fetchedAt = BASE * 1000 + 10 * 60 * 1000;
+        // The evening check at 18:00 would otherwise read a 7 hour old snapshot
+        assertEquals(EVENING, RefreshPolicy.nextRefreshAtMillis(snapshot(fetchedAt, 50, 0), BUILT_IN));
+        // With only the morning rule on, it lasts until 07:00 tomorrow
+        assertEquals(BASE * 1000 + 20 * HOUR, RefreshPolicy.nextRefreshAtMillis(snapshot(fetchedAt, 50, 0),
+                Collections.singletonList(AlertRule.umbrella(true))));
+    }
+
+    @Test
+    public void noEnabledRules_waitsAFullDay() {
+        long fetchedAt = BASE * 1000 + 10 * 60 * 1000;
+        assertEquals(fetchedAt + 24 * HOUR, RefreshPolicy.nextRefreshAtMillis(snapshot(fetchedAt, 33, 0),
+                Collections.<AlertRule>emptyList()));
+    }
+
+    @Test
+    public void nearFreezing_refreshesSoonButNotBeforeNextModelRun() {
+        long fetchedAt = BASE * 1000 + 10 * 60 * 1000;
+        // 33°F is inside the 1 hour tier, but the next model run is at 21:00 UTC
+        assertEquals(BASE * 1000 + 3 * HOUR, RefreshPolicy.nextRefreshAtMillis(snapshot(fetchedAt, 33, 0), BUILT_IN));
+    }
+
+    @Test
+    public void tiersFollowDistanceFromThreshold() {
+        assertEquals(EVENING + 3 * HOUR, RefreshPolicy.nextRefreshAtMillis(snapshot(EVENING, 35, 0), BUILT_IN));
+        assertEquals(EVENING + 6 * HOUR, RefreshPolicy.nextRefreshAtMillis(snapshot(EVENING, 38, 0), BUILT_IN));
+        assertEquals(EVENING + 12 * HOUR, RefreshPolicy.nextRefreshAtMillis(snapshot(EVENING, 42, 0), BUILT_IN));
+        // 38% is 8 points from the 30% umbrella threshold
+        assertEquals(EVENING + 3 * HOUR, RefreshPolicy.nextRefreshAtMillis(snapshot(EVENING, 60, 0.38f), BUILT_IN));
+        // Calm weather is still refetched for the morning check
+        assertEquals(EVENING + 13 * HOUR, RefreshPolicy.nextRefreshAtMillis(snapshot(EVENING, 60, 0), BUILT_IN));
+    }
+
+    @Test
+    public void thresholdsComeFromTheRulesThatAreOn() {
+        // A freeze rule moved to 28°F makes 33°F comfortably clear of it
+        AlertRule hardFreeze = new AlertRule("hard", "Hard freeze", AlertRule.Check.EVENING, 22, 8, true,
+                Collections.singletonList(new AlertRule.Condition(
+                        AlertRule.Metric.TEMP, AlertRule.Comparison.AT_MOST, 28)));
+        assertEquals(EVENING + 6 * HOUR, RefreshPolicy.nextRefreshAtMillis(snapshot(EVENING, 33, 0),
+                Collections.singletonList(hardFreeze)));
+
+        // A wind rule 2 mph from its threshold overnight
+        AlertRule gale = new AlertRule("gale", "Gale", AlertRule.Check.EVENING, 22, 8, true,
+                Collections.singletonList(new AlertRule.Condition(
+                        AlertRule.Metric.WIND_SPEED, AlertRule.Comparison.ABOVE, 25)));
+        // 1 hour tier, floored at the next model run at 03:00 UTC
+        assertEquals(EVENING + 2 * HOUR, RefreshPolicy.nextRefreshAtMillis(snapshot(EVENING, 60, 0, 23),
+                Collections.singletonList(gale)));
+    }
+
+    @Test
+    public void nextCheck_isTheCheckHourInTheCityTime() {
+        long fetchedAt = BASE * 1000;
+        assertEquals(EVENING, RefreshPolicy.nextCheckMillis(fetchedAt, SEATTLE, AlertRule.Check.EVENING));
+        assertEquals(BASE * 1000 + 20 * HOUR, RefreshPolicy.nextCheckMillis(fetchedAt, SEATTLE, AlertRule.Check.MORNING));
+        // A check at the fetch time itself is already done
+        assertEquals(EVENING + 24 * HOUR, RefreshPolicy.nextCheckMillis(EVENING, SEATTLE, AlertRule.Check.EVENING));
+    }
+
+    @Test
+    public void nextModelUpdate_isNextThreeHourUtcBoundary() {
+        assertEquals(BASE * 1000 + 3 * HOUR, RefreshPolicy.nextModelUpdateMillis(BASE * 1000));
+        assertEquals(BASE * 1000 + 3 * HOUR, RefreshPolicy.nextModelUpdateMillis(BASE * 1000 + 2 * HOUR));
+    }
+}
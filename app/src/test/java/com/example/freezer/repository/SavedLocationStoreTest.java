@@ -0,0 +1,96 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.FakeSharedPreferences;
+import com.example.freezer.model.SavedLocation;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SavedLocationStoreTest {
+
+    @Test
+    public void locations_roundTripThroughJson() throws IOException {
+        List<SavedLocation> saved = Arrays.asList(
+                new SavedLocation("a1", "Cabin", 47.7511, -120.7401),
+                new SavedLocation("b2", "Greenhouse", 47.6062, -122.3321));
+
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out)) {
+            SavedLocationStore.writeLocations(writer, saved);
+        }
+        List<SavedLocation> read = SavedLocationStore.readLocations(new JsonReader(new StringReader(out.toString())));
+
+        assertEquals(2, read.size());
+        assertEquals("a1", read.get(0).getId());
+        assertEquals("Cabin", read.get(0).getName());
+        assertEquals(47.7511, read.get(0).getLat(), 1e-9);
+        assertEquals(-122.3321, read.get(1).getLon(), 1e-9);
+        assertFalse(read.get(0).isCurrent());
+    }
+
+    @Test
+    public void readLocations_skipsEntriesWithoutIdAndUnknownFields() throws IOException {
+        String json = "[{\"name\":\"Broken\",\"lat\":1,\"lon\":2},"
+                + "{\"id\":\"c3\",\"name\":\"Home\",\"lat\":45.5,\"lon\":-122.6,\"color\":\"green\"}]";
+
+        List<SavedLocation> read = SavedLocationStore.readLocations(new JsonReader(new StringReader(json)));
+
+        assertEquals(1, read.size());
+        assertEquals("c3", read.get(0).getId());
+        assertEquals("Home", read.get(0).getName());
+    }
+
+    private static SavedLocationStore newStore(FakeSharedPreferences prefs) {
+        return new SavedLocationStore(new SettingsStore(prefs, new ManualScheduledExecutor(), Runnable::run));
+    }
+
+    @Test
+    public void addAndRemove_updateTheLocationsChecksRunFor() {
+        FakeSharedPreferences prefs = new FakeSharedPreferences();
+        prefs.values.put(SettingsStore.KEY_LAST_LAT, 47.6f);
+        prefs.values.put(SettingsStore.KEY_LAST_LON, -122.3f);
+        SavedLocationStore store = newStore(prefs);
+
+        SavedLocation cabin = store.add("  Cabin ", 47.7511, -120.7401);
+        SavedLocation greenhouse = store.add("Greenhouse", 45.5, -122.6);
+
+        List<SavedLocation> all = store.getAll();
+        assertEquals(3, all.size());
+        assertTrue(all.get(0).isCurrent());
+        assertEquals("Cabin", all.get(1).getName());
+        assertEquals(cabin.getId(), all.get(1).getId());
+        assertEquals(greenhouse.getId(), all.get(2).getId());
+
+        store.remove(cabin.getId());
+        List<SavedLocation> saved = store.getSaved();
+        assertEquals(1, saved.size());
+        assertEquals("Greenhouse", saved.get(0).getName());
+    }
+
+    @Test
+    public void add_rejectsBlankNamesAndCoordinatesOffTheGlobe() {
+        SavedLocationStore store = newStore(new FakeSharedPreferences());
+        for (double[] coordinates : new double[][]{{91, 0}, {0, -181}, {Double.NaN, 0}}) {
+            try {
+                store.add("Somewhere", coordinates[0], coordinates[1]);
+                fail("Expected " + Arrays.toString(coordinates) + " to be rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+        try {
+            store.add(" ", 45, -122);
+            fail("Expected a blank name to be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertTrue(store.getSaved().isEmpty());
+    }
+}
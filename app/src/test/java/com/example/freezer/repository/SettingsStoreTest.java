@@ -0,0 +1,87 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.FakeSharedPreferences;
+import com.example.freezer.model.Settings;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class SettingsStoreTest {
+
+    @Test
+    public void get_returnsStoredValues() {
+        FakeSharedPreferences prefs = new FakeSharedPreferences();
+        prefs.values.put(SettingsStore.KEY_UMBRELLA_ALERTS_ENABLED, true);
+        prefs.values.put(SettingsStore.KEY_LAST_LAT, 47.6f);
+        prefs.values.put(SettingsStore.KEY_LAST_LON, -122.3f);
+        prefs.values.put(SettingsStore.KEY_PREFETCH_MAX_DISTANCE, 1000f);
+        ManualScheduledExecutor io = new ManualScheduledExecutor();
+
+        Settings settings = new SettingsStore(prefs, io, Runnable::run).get();
+
+        assertFalse(settings.isFreezeAlertsEnabled());
+        assertTrue(settings.isUmbrellaAlertsEnabled());
+        assertTrue(settings.hasLastLocation());
+        assertEquals(47.6f, settings.getLastLat(), 0f);
+        assertEquals(1000f, settings.getPrefetchMaxDistanceMeters(), 0f);
+    }
+
+    @Test
+    public void update_beforeLoadIsReplayedOnStoredValues() {
+        FakeSharedPreferences prefs = new FakeSharedPreferences();
+        prefs.values.put(SettingsStore.KEY_LAST_LAT, 47.6f);
+        prefs.values.put(SettingsStore.KEY_LAST_LON, -122.3f);
+        prefs.blockReads = new CountDownLatch(1);
+        ManualScheduledExecutor io = new ManualScheduledExecutor();
+
+        SettingsStore store = new SettingsStore(prefs, io, Runnable::run);
+        store.update(settings -> settings.setFreezeAlertsEnabled(true));
+        assertNull(store.peek());
+        prefs.blockReads.countDown();
+
+        Settings settings = store.get();
+        assertTrue(settings.isFreezeAlertsEnabled());
+        assertEquals(-122.3f, settings.getLastLon(), 0f);
+        assertEquals(Settings.DEFAULT_PREFETCH_MAX_DISTANCE_METERS, settings.getPrefetchMaxDistanceMeters(), 0f);
+
+        assertEquals(1, io.runScheduled());
+        assertEquals(Boolean.TRUE, prefs.values.get(SettingsStore.KEY_FREEZE_ALERTS_ENABLED));
+    }
+
+    @Test
+    public void update_batchesWritesAndNotifiesInOrder() {
+        FakeSharedPreferences prefs = new FakeSharedPreferences();
+        ManualScheduledExecutor io = new ManualScheduledExecutor();
+        SettingsStore store = new SettingsStore(prefs, io, Runnable::run);
+        store.get();
+
+        StringBuilder seen = new StringBuilder();
+        store.addListener(settings -> seen.append(settings.isFreezeAlertsEnabled() ? 'T' : 'F'));
+        store.update(settings -> settings.setFreezeAlertsEnabled(true));
+        store.update(settings -> settings.setFreezeAlertsEnabled(false));
+        store.update(settings -> settings.setFreezeAlertsEnabled(true));
+        store.update(settings -> settings.setLastLocation(1f, 2f));
+
+        // Visible in memory before anything reaches disk
+        assertTrue(store.peek().isFreezeAlertsEnabled());
+        assertEquals("TFTT", seen.toString());
+
+        assertEquals(0, prefs.commits);
+        assertEquals(Collections.singletonList(SettingsStore.FLUSH_DELAY_MILLIS), io.scheduledDelaysMillis());
+
+        io.runScheduled();
+        assertEquals(1, prefs.commits);
+        assertEquals(Boolean.TRUE, prefs.values.get(SettingsStore.KEY_FREEZE_ALERTS_ENABLED));
+        assertEquals(2f, prefs.values.get(SettingsStore.KEY_LAST_LON));
+
+        // A later update starts a new batch
+        store.update(settings -> settings.setUmbrellaAlertsEnabled(true));
+        assertEquals(1, io.runScheduled());
+        assertEquals(2, prefs.commits);
+        assertEquals(Boolean.TRUE, prefs.values.get(SettingsStore.KEY_UMBRELLA_ALERTS_ENABLED));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.freezer.repository;
+
+import com.example.freezer.FakeSharedPreferences;
+import com.example.freezer.api.NetworkMetrics;
+import com.example.freezer.api.ReplayServer;
+import com.example.freezer.api.WeatherAPI;
+import com.example.freezer.model.AlertEngine;
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+import com.example.freezer.model.SavedLocation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+
+import static org.junit.Assert.*;
+
+/**
+ * Replays an alert check's refresh the way AlertCheckWorker runs it: every location goes
+ * through {@link LocationRefreshPipeline} and {@link ForecastRefresher} over the production
+ * HTTP stack, then the alert engine runs on each snapshot. The worker's WorkManager and
+ * notification plumbing isn't driven. Timings go to {@link #REPORT}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class WorkerReplayTest {
+    // Relative to the module directory Gradle runs tests from
+    private static final File REPORT = new File("build/reports/replay/worker_timings.txt");
+    private static final long DEADLINE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final NetworkMetrics networkMetrics = new NetworkMetrics();
+    private final ForecastDatabase database = new ForecastDatabase(RuntimeEnvironment.getApplication(), null);
+    private final ForecastHistoryStore history = new ForecastHistoryStore(database);
+    private final Map<String, ForecastSnapshotStore> stores = new ConcurrentHashMap<>();
+    private final AlertEngine engine = AlertEngine.compile(Arrays.asList(
+            AlertRule.freeze(true), AlertRule.umbrella(true)));
+
+    private ReplayServer server;
+    private Cache cache;
+    private SavedLocationStore locationStore;
+    private LocationRefreshPipeline pipeline;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ReplayServer("forecast_40.json");
+        server.start();
+        cache = new Cache(folder.newFolder("http_cache"), 5 * 1024 * 1024);
+        WeatherAPI api = server.createApi(cache, networkMetrics);
+
+        FakeSharedPreferences prefs = new FakeSharedPreferences();
+        prefs.values.put(SettingsStore.KEY_FREEZE_ALERTS_ENABLED, true);
+        prefs.values.put(SettingsStore.KEY_UMBRELLA_ALERTS_ENABLED, true);
+        prefs.values.put(SettingsStore.KEY_LAST_LAT, 47.6062f);
+        prefs.values.put(SettingsStore.KEY_LAST_LON, -122.3321f);
+        SettingsStore settingsStore = new SettingsStore(prefs, new ManualScheduledExecutor(), Runnable::run);
+        locationStore = new SavedLocationStore(settingsStore);
+        locationStore.add("Cabin", 47.7511, -120.7401);
+        locationStore.add("Greenhouse", 45.5152, -122.6784);
+
+        ForecastRefresher refresher = new ForecastRefresher(new ForecastRepository(api, api), settingsStore,
+                id -> stores.computeIfAbsent(id, key -> new ForecastSnapshotStore(history, key,
+                        new File(folder.getRoot(), ForecastSnapshotStore.legacyFileName(key)))));
+        pipeline = new LocationRefreshPipeline(refresher);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        cache.close();
+        database.close();
+    }
+
+    // Alert matches across every location, evaluated at the recorded time so the windows line up
+    private int analyze(List<LocationRefreshPipeline.Result> results) {
+        int matches = 0;
+        for (LocationRefreshPipeline.Result result : results) {
+            assertTrue(result.getLocation().getId() + ": " + result.getError(), result.isSuccess());
+            ForecastResponse forecast = result.getSnapshot().getForecast();
+            ForecastSeries series = forecast.getSeries();
+            long now = series.getDt(0);
+            matches += engine.evaluate(series, now, forecast.getUtcOffsetSeconds(now)).size();
+        }
+        return matches;
+    }
+
+    @Test
+    public void checkPass_fetchesEachLocationOnce_thenReusesSnapshots() throws IOException {
+        List<SavedLocation> locations = locationStore.getAll();
+        assertEquals(3, locations.size());
+
+        long start = System.nanoTime();
+        List<LocationRefreshPipeline.Result> cold = pipeline.refreshAll(
+                locations, SavedLocation.CURRENT_ID, DEADLINE_MILLIS);
+        long fetched = System.nanoTime();
+        int coldMatches = analyze(cold);
+        long analyzed = System.nanoTime();
+
+        assertEquals(SavedLocation.CURRENT_ID, cold.get(0).getLocation().getId());
+        assertEquals(3, server.getRequestCount());
+
+        // A second check in the same cycle reads the stored snapshots without touching the network
+        List<LocationRefreshPipeline.Result> warm = pipeline.refreshAll(
+                locations, SavedLocation.CURRENT_ID, DEADLINE_MILLIS);
+        long reused = System.nanoTime();
+        assertEquals(coldMatches, analyze(warm));
+        assertEquals(3, server.getRequestCount());
+        for (int i = 0; i < cold.size(); i++) {
+            assertSame(cold.get(i).getSnapshot(), warm.get(i).getSnapshot());
+        }
+
+        String line = "worker pass (" + locations.size() + " locations): fetch+parse "
+                + TimeUnit.NANOSECONDS.toMillis(fetched - start) + "ms, analysis "
+                + TimeUnit.NANOSECONDS.toMillis(analyzed - fetched) + "ms, reused pass "
+                + TimeUnit.NANOSECONDS.toMillis(reused - analyzed) + "ms; " + networkMetrics.summary();
+        Files.createDirectories(REPORT.getParentFile().toPath());
+        Files.write(REPORT.toPath(), (line + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
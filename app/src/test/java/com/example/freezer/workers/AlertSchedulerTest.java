@@ -0,0 +1,54 @@
+package com.example.freezer.workers;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AlertSchedulerTest {
+    // 2025-10-18 18:00 PDT
+    private static final long SIX_PM = 1760835600000L;
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private TimeZone originalZone;
+
+    @Before
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+    }
+
+    @Test
+    public void beforeTarget_firesLaterToday() {
+        assertEquals(SIX_PM, AlertScheduler.nextOccurrence(SIX_PM - 5 * HOUR - 1234, 18));
+    }
+
+    @Test
+    public void atOrAfterTarget_firesTomorrow() {
+        assertEquals(SIX_PM + 24 * HOUR, AlertScheduler.nextOccurrence(SIX_PM, 18));
+        assertEquals(SIX_PM + 24 * HOUR, AlertScheduler.nextOccurrence(SIX_PM + 90_000, 18));
+    }
+
+    @Test
+    public void rearmingAfterLateAlarm_keepsWallClockTime() {
+        // An alarm delivered 40 minutes late still schedules the next one for 7 AM
+        long sevenAm = SIX_PM - 11 * HOUR;
+        assertEquals(sevenAm + 24 * HOUR, AlertScheduler.nextOccurrence(sevenAm + 40 * 60_000, 7));
+    }
+
+    @Test
+    public void daylightSavingChange_keepsWallClockTime() {
+        // 2026-03-07 19:00 PST; clocks spring forward overnight, so 6 PM next day is 22 hours away
+        long evening = 1772938800000L;
+        assertEquals(evening + 22 * HOUR, AlertScheduler.nextOccurrence(evening, 18));
+    }
+}
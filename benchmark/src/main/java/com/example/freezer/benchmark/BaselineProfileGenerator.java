@@ -0,0 +1,58 @@
+package com.example.freezer.benchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import kotlin.Unit;
+
+/**
+ * Records the startup and first-scroll code paths into the Baseline Profile shipped with
+ * :app. Run with ./gradlew :app:generateBaselineProfile on a connected API 28+ device.
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    private final StubForecastServer server = new StubForecastServer();
+
+    @Before
+    public void startServer() throws IOException {
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(
+                FreezerJourneys.PACKAGE_NAME,
+                15,
+                3,
+                null,
+                true,
+                false,
+                method -> true,
+                scope -> {
+                    FreezerJourneys.grantLocationPermission(scope);
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    FreezerJourneys.scrollHourlyForecast(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.freezer.benchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import java.io.IOException;
+
+/**
+ * User journeys shared by the benchmarks and the Baseline Profile generator.
+ */
+final class FreezerJourneys {
+    static final String PACKAGE_NAME = "com.example.freezer";
+    private static final long UI_TIMEOUT_MS = 10_000;
+
+    private FreezerJourneys() {
+    }
+
+    // Skip the permission dialog so every iteration goes straight to location and fetch
+    static void grantLocationPermission(MacrobenchmarkScope scope) {
+        try {
+            scope.getDevice().executeShellCommand(
+                    "pm grant " + PACKAGE_NAME + " android.permission.ACCESS_FINE_LOCATION");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not grant location permission", e);
+        }
+    }
+
+    static UiObject2 waitForHourlyForecast(UiDevice device) {
+        UiObject2 list = device.wait(
+                Until.findObject(By.res(PACKAGE_NAME, "hourlyForecastRecyclerView")), UI_TIMEOUT_MS);
+        if (list == null) {
+            throw new IllegalStateException("hourlyForecastRecyclerView not found");
+        }
+        // Rows appear once the stub forecast (or a saved snapshot) has been rendered
+        list.wait(Until.hasObject(By.res(PACKAGE_NAME, "tempText")), UI_TIMEOUT_MS);
+        return list;
+    }
+
+    static void scrollHourlyForecast(UiDevice device) {
+        UiObject2 list = waitForHourlyForecast(device);
+        // Keep gestures clear of the system navigation edges
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        list.fling(Direction.RIGHT);
+        device.waitForIdle();
+        list.fling(Direction.LEFT);
+        device.waitForIdle();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.freezer.benchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.filters.LargeTest;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Until;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Cold start through location, fetch, parse and the first live render, with the recorded
+ * forecast replayed under each {@link StubForecastServer.Profile}. Time to full display
+ * is the end-to-end figure; the HTTP cache is bypassed so every launch fetches.
+ */
+@LargeTest
+@RunWith(Parameterized.class)
+public class ReplayBenchmark {
+    private static final int ITERATIONS = 5;
+    private static final long FETCH_TIMEOUT_MS = 30_000;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final StubForecastServer server;
+
+    public ReplayBenchmark(StubForecastServer.Profile profile) {
+        server = new StubForecastServer(profile, false);
+    }
+
+    @Parameterized.Parameters(name = "profile={0}")
+    public static List<Object[]> parameters() {
+        List<Object[]> parameters = new ArrayList<>();
+        for (StubForecastServer.Profile profile : StubForecastServer.Profile.values()) {
+            parameters.add(new Object[]{profile});
+        }
+        return parameters;
+    }
+
+    @Before
+    public void startServer() throws IOException {
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void coldStartToLiveForecast() {
+        benchmarkRule.measureRepeated(
+                FreezerJourneys.PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    FreezerJourneys.grantLocationPermission(scope);
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    // A saved snapshot renders first; the spinner goes once the live forecast is in
+                    scope.getDevice().wait(Until.gone(
+                            By.res(FreezerJourneys.PACKAGE_NAME, "progressBar")), FETCH_TIMEOUT_MS);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.freezer.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Frame timing while flinging the hourly forecast strip.
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class ScrollBenchmark {
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final StubForecastServer server = new StubForecastServer();
+
+    @Before
+    public void startServer() throws IOException {
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void scrollHourlyForecastNoCompilation() {
+        scroll(new CompilationMode.None());
+    }
+
+    @Test
+    public void scrollHourlyForecastWithBaselineProfile() {
+        scroll(new CompilationMode.Partial(BaselineProfileMode.Require));
+    }
+
+    private void scroll(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                FreezerJourneys.PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                compilationMode,
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    FreezerJourneys.grantLocationPermission(scope);
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    FreezerJourneys.waitForHourlyForecast(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    FreezerJourneys.scrollHourlyForecast(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.freezer.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.filters.LargeTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Cold, warm and hot startup of MainActivity, with and without the Baseline Profile.
+ * Time to full display is reported once the first forecast is on screen.
+ */
+@LargeTest
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final StubForecastServer server = new StubForecastServer();
+    private final StartupMode startupMode;
+    private final CompilationMode compilationMode;
+
+    public StartupBenchmark(StartupMode startupMode, CompilationMode compilationMode) {
+        this.startupMode = startupMode;
+        this.compilationMode = compilationMode;
+    }
+
+    @Parameterized.Parameters(name = "mode={0},compilation={1}")
+    public static List<Object[]> parameters() {
+        List<Object[]> parameters = new ArrayList<>();
+        for (StartupMode mode : StartupMode.values()) {
+            parameters.add(new Object[]{mode, new CompilationMode.None()});
+            parameters.add(new Object[]{mode, new CompilationMode.Partial(BaselineProfileMode.Require)});
+        }
+        return parameters;
+    }
+
+    @Before
+    public void startServer() throws IOException {
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void startup() {
+        benchmarkRule.measureRepeated(
+                FreezerJourneys.PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    FreezerJourneys.grantLocationPermission(scope);
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    FreezerJourneys.waitForHourlyForecast(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
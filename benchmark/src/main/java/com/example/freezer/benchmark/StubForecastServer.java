@@ -0,0 +1,104 @@
+package com.example.freezer.benchmark;
+
+import android.content.Context;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Local stand-in for OpenWeatherMap. Benchmark builds of :app point WEATHER_BASE_URL at
+ * this port, so startup and scrolling are measured against a fixed recorded payload,
+ * optionally replayed under a {@link Profile} of network conditions.
+ */
+public class StubForecastServer {
+    // Must match benchmarkStubPort in app/build.gradle.kts
+    static final int PORT = 8765;
+    private static final String FIXTURE = "forecast_40.json";
+
+    public enum Profile {
+        RECORDED(0, 0),
+        // A slow mobile round trip with plenty of bandwidth
+        HIGH_LATENCY(800, 0),
+        // Roughly EDGE throughput
+        LOW_BANDWIDTH(300, 24 * 1024);
+
+        final long latencyMillis;
+        final int bytesPerSecond;
+
+        Profile(long latencyMillis, int bytesPerSecond) {
+            this.latencyMillis = latencyMillis;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+    }
+
+    private final MockWebServer server = new MockWebServer();
+    private final Profile profile;
+    private final boolean cacheable;
+
+    public StubForecastServer() {
+        this(Profile.RECORDED, true);
+    }
+
+    // With cacheable off, every launch fetches again instead of hitting the app's HTTP cache
+    public StubForecastServer(Profile profile, boolean cacheable) {
+        this.profile = profile;
+        this.cacheable = cacheable;
+    }
+
+    public void start() throws IOException {
+        String body = readFixture();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath() != null && request.getPath().startsWith("/data/2.5/forecast")) {
+                    return respond(body);
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start(InetAddress.getByName("127.0.0.1"), PORT);
+    }
+
+    public void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse respond(String body) {
+        MockResponse response = new MockResponse()
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(body);
+        if (!cacheable) {
+            response.setHeader("Cache-Control", "max-age=0");
+        }
+        if (profile.latencyMillis > 0) {
+            response.setHeadersDelay(profile.latencyMillis, TimeUnit.MILLISECONDS);
+        }
+        if (profile.bytesPerSecond > 0) {
+            response.throttleBody(profile.bytesPerSecond / 10, 100, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private static String readFixture() throws IOException {
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        try (InputStream in = context.getAssets().open(FIXTURE)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+}
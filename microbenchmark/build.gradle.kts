@@ -0,0 +1,49 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+// Plain JVM build of the app's pure-Java hot paths, so they can be measured with JMH
+// without a device. Keep this list free of android.* dependencies.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/freezer/model/**",
+                "com/example/freezer/api/ForecastJsonDecoder.java",
+                "com/example/freezer/adapter/ForecastLabels.java"
+            )
+        }
+    }
+    named("jmh") {
+        // Recorded /forecast responses with 8, 16 and 40 slots
+        resources.srcDir("../app/src/test/resources")
+    }
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+// The app sources use °F and similar literals; don't depend on the platform default
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    implementation("com.google.code.gson:gson:2.8.9")
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    benchmarkMode.set(listOf("thrpt"))
+    timeUnit.set("ms")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(2)
+    // Adds gc.alloc.rate.norm (bytes per op) next to throughput
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+}
@@ -0,0 +1,41 @@
+package com.example.freezer.microbenchmark;
+
+import com.example.freezer.api.ForecastJsonDecoder;
+import com.example.freezer.model.ForecastResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    // Raw bytes of fixtures/forecast_<slots>.json, as they arrive in a response body
+    static byte[] forecastBytes(int slots) throws IOException {
+        String name = "fixtures/forecast_" + slots + ".json";
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Missing fixture " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    static ForecastResponse decode(byte[] body) throws IOException {
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8)) {
+            return ForecastJsonDecoder.decode(reader);
+        }
+    }
+}
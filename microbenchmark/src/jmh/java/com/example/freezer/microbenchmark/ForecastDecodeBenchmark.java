@@ -0,0 +1,33 @@
+package com.example.freezer.microbenchmark;
+
+import com.example.freezer.model.ForecastResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Streaming decode of a /forecast body into a ForecastResponse, including UTF-8 decoding.
+ */
+@State(Scope.Benchmark)
+public class ForecastDecodeBenchmark {
+
+    @Param({"8", "16", "40"})
+    public int slots;
+
+    private byte[] body;
+
+    @Setup
+    public void loadFixture() throws IOException {
+        body = Fixtures.forecastBytes(slots);
+    }
+
+    @Benchmark
+    public ForecastResponse decode() throws IOException {
+        return Fixtures.decode(body);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.freezer.microbenchmark;
+
+import com.example.freezer.adapter.ForecastLabels;
+import com.example.freezer.model.ForecastResponse;
+import com.example.freezer.model.ForecastSeries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Row label building for the hourly strip: the 9 rows the screen shows, and every slot
+ * in the fixture as an upper bound.
+ */
+@State(Scope.Benchmark)
+public class ForecastLabelsBenchmark {
+    private static final int VISIBLE_ROWS = 9;
+
+    @Param({"8", "16", "40"})
+    public int slots;
+
+    private ForecastSeries series;
+    private int utcOffset;
+
+    @Setup
+    public void loadFixture() throws IOException {
+        ForecastResponse forecast = Fixtures.decode(Fixtures.forecastBytes(slots));
+        series = forecast.getSeries();
+        utcOffset = forecast.getUtcOffsetSeconds(series.getDt(0));
+    }
+
+    @Benchmark
+    public ForecastLabels visibleRows() {
+        return ForecastLabels.build(series, 0, Math.min(VISIBLE_ROWS, series.size()), utcOffset);
+    }
+
+    @Benchmark
+    public ForecastLabels allSlots() {
+        return ForecastLabels.build(series, 0, series.size(), utcOffset);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.freezer.microbenchmark;
+
+import com.example.freezer.model.AlertEngine;
+import com.example.freezer.model.AlertRule;
+import com.example.freezer.model.ForecastResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One {@link AlertEngine} pass over the fixture, for the built-in freeze and umbrella
+ * rules alone and with a handful of user rules added, with "now" pinned to the first slot
+ * so every window lands inside the fixture.
+ */
+@State(Scope.Benchmark)
+public class WindowScanBenchmark {
+    @Param({"8", "16", "40"})
+    public int slots;
+
+    private ForecastResponse forecast;
+    private long now;
+    private AlertEngine builtIn;
+    private AlertEngine withUserRules;
+
+    @Setup
+    public void loadFixture() throws IOException {
+        forecast = Fixtures.decode(Fixtures.forecastBytes(slots));
+        now = forecast.getSeries().getDt(0);
+        builtIn = AlertEngine.compile(Arrays.asList(AlertRule.freeze(true), AlertRule.umbrella(true)));
+
+        List<AlertRule> rules = new ArrayList<>(builtIn.getRules());
+        rules.add(rule("wind", 12, 18, AlertRule.Metric.WIND_SPEED, AlertRule.Comparison.ABOVE, 25));
+        rules.add(rule("heat", 10, 20, AlertRule.Metric.FEELS_LIKE, AlertRule.Comparison.ABOVE, 90));
+        rules.add(rule("snow", 0, 0, AlertRule.Metric.SNOW_MM, AlertRule.Comparison.ABOVE, 0));
+        rules.add(rule("humid", 6, 12, AlertRule.Metric.HUMIDITY, AlertRule.Comparison.ABOVE, 90));
+        withUserRules = AlertEngine.compile(rules);
+    }
+
+    private static AlertRule rule(String id, int startHour, int endHour, AlertRule.Metric metric,
+                                  AlertRule.Comparison comparison, double threshold) {
+        return new AlertRule(id, id, AlertRule.Check.MORNING, startHour, endHour, true,
+                Collections.singletonList(new AlertRule.Condition(metric, comparison, threshold)));
+    }
+
+    @Benchmark
+    public List<AlertEngine.Match> builtInRulesSinglePass() {
+        return builtIn.evaluate(forecast.getSeries(), now, forecast.getUtcOffsetSeconds(now));
+    }
+
+    @Benchmark
+    public List<AlertEngine.Match> withUserRulesSinglePass() {
+        return withUserRules.evaluate(forecast.getSeries(), now, forecast.getUtcOffsetSeconds(now));
+    }
+}
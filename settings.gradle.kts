@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "Freezer"
 include(":app")
+include(":benchmark")
+include(":microbenchmark")